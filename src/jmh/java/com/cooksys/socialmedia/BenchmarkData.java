@@ -0,0 +1,135 @@
+package com.cooksys.socialmedia;
+
+import com.cooksys.socialmedia.entities.Credentials;
+import com.cooksys.socialmedia.entities.Profile;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.entities.User;
+import com.cooksys.socialmedia.mappers.ProfileMapperImpl;
+import com.cooksys.socialmedia.mappers.TweetMapper;
+import com.cooksys.socialmedia.mappers.TweetMapperImpl;
+import com.cooksys.socialmedia.mappers.UserMapper;
+import com.cooksys.socialmedia.mappers.UserMapperImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds in-memory entity graphs for the benchmarks. Everything is derived from a fixed seed so that
+ * every run, on every commit, measures the same data.
+ */
+public final class BenchmarkData {
+
+    private static final long SEED = 20240101L;
+    private static final long START = Timestamp.valueOf("2024-01-01 00:00:00").getTime();
+    private static final String[] WORDS = {
+            "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "coffee", "deploy",
+            "friday", "release", "tests", "green", "again", "finally", "weekend", "pairing", "review", "ship"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * The generated mapper wired the way Spring wires it.
+     */
+    public static UserMapper userMapper() {
+        UserMapperImpl userMapper = new UserMapperImpl();
+        ReflectionTestUtils.setField(userMapper, "profileMapper", new ProfileMapperImpl());
+        return userMapper;
+    }
+
+    /**
+     * The generated mapper wired the way Spring wires it, with the default embed depth of one.
+     */
+    public static TweetMapper tweetMapper(UserMapper userMapper) {
+        TweetMapperImpl tweetMapper = new TweetMapperImpl();
+        ReflectionTestUtils.setField(tweetMapper, "userMapper", userMapper);
+        ReflectionTestUtils.setField(tweetMapper, "embedDepth", 1);
+        return tweetMapper;
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Credentials credentials = new Credentials();
+            credentials.setUsername("user" + i);
+            credentials.setPassword("password" + i);
+
+            Profile profile = new Profile();
+            profile.setFirstName("First" + i);
+            profile.setLastName("Last" + i);
+            profile.setEmail("user" + i + "@example.com");
+            profile.setPhone("555-01" + (i % 100));
+
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setVersion(0L);
+            user.setJoined(new Timestamp(START + i * 60_000L));
+            user.setCredentials(credentials);
+            user.setProfile(profile);
+            user.setTweets(new ArrayList<>());
+            user.setFollowing(new ArrayList<>());
+            user.setFollowers(new ArrayList<>());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Tweets by the given authors in random order of posting. About a fifth reply to an earlier tweet
+     * and a tenth repost one, and about one in twenty is deleted.
+     */
+    public static List<Tweet> tweets(List<User> authors, int count, Random random) {
+        List<Tweet> tweets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User author = authors.get(random.nextInt(authors.size()));
+            Tweet tweet = new Tweet();
+            tweet.setId((long) i + 1);
+            tweet.setVersion(0L);
+            tweet.setAuthor(author);
+            tweet.setPosted(new Timestamp(START + random.nextInt(365 * 24 * 60) * 60_000L));
+            tweet.setDeleted(random.nextInt(20) == 0);
+            tweet.setContent(content(authors, random));
+            if (i > 0 && random.nextInt(5) == 0) {
+                tweet.setInReplyTo(tweets.get(random.nextInt(i)));
+            } else if (i > 0 && random.nextInt(10) == 0) {
+                tweet.setRepostOf(tweets.get(random.nextInt(i)));
+            }
+            author.getTweets().add(tweet);
+            tweets.add(tweet);
+        }
+        return tweets;
+    }
+
+    /**
+     * Between 5 and 30 words with occasional hashtags, mentions and trailing punctuation.
+     */
+    public static String content(List<User> users, Random random) {
+        StringBuilder content = new StringBuilder();
+        int words = 5 + random.nextInt(26);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                content.append(' ');
+            }
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                content.append('#').append(WORDS[random.nextInt(WORDS.length)]);
+            } else if (kind == 1) {
+                content.append('@').append(users.get(random.nextInt(users.size())).getCredentials().getUsername());
+            } else {
+                content.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            if (random.nextInt(8) == 0) {
+                content.append(random.nextBoolean() ? ',' : '!');
+            }
+        }
+        return content.toString();
+    }
+}
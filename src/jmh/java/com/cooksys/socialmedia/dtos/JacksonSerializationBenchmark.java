@@ -0,0 +1,52 @@
+package com.cooksys.socialmedia.dtos;
+
+import com.cooksys.socialmedia.BenchmarkData;
+import com.cooksys.socialmedia.mappers.TweetMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of mapped tweet lists with an ObjectMapper configured like Boot's default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<TweetResponseDto> tweets;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TweetMapper tweetMapper = BenchmarkData.tweetMapper(BenchmarkData.userMapper());
+        tweets = tweetMapper.entitiesToDtos(
+                BenchmarkData.tweets(BenchmarkData.users(Math.max(1, size / 10)), size, BenchmarkData.random()));
+    }
+
+    @Benchmark
+    public byte[] writeTweetList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tweets);
+    }
+}
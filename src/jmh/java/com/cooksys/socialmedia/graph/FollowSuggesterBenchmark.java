@@ -0,0 +1,87 @@
+package com.cooksys.socialmedia.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An uncached ranking for GET /users/@{username}/suggestions on a generated graph: {@code users} accounts following
+ * about {@code averageFollowing} others each, skewed towards low ids the way follows pile up on popular accounts,
+ * and one reader following {@code following} of them. {@code parallelism} is the fork-join pool's size; it only
+ * helps on a machine with that many cores free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FollowSuggesterBenchmark {
+
+    private static final long READER = 0;
+
+    @Param({"100000"})
+    public int users;
+
+    @Param({"50"})
+    public int averageFollowing;
+
+    @Param({"100", "1000", "5000"})
+    public int following;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private SocialGraph.State graph;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(20240101L);
+        GraphSnapshot.Builder edges = new GraphSnapshot.Builder();
+        for (long user = 1; user <= users; user++) {
+            int count = random.nextInt(2 * averageFollowing + 1);
+            for (int i = 0; i < count; i++) {
+                edges.add(user, popular(random));
+            }
+        }
+        Set<Long> followees = new HashSet<>();
+        while (followees.size() < following) {
+            followees.add(popular(random));
+        }
+        for (long followee : followees) {
+            edges.add(READER, followee);
+        }
+        graph = new SocialGraph.State(edges.build());
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long[] rank() {
+        return FollowSuggester.rank(graph, READER, 100, pool);
+    }
+
+    private long popular(SplittableRandom random) {
+        return 1 + (long) (users * Math.pow(random.nextDouble(), 2.5));
+    }
+}
@@ -0,0 +1,60 @@
+package com.cooksys.socialmedia.mappers;
+
+import com.cooksys.socialmedia.BenchmarkData;
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping of large entity lists, with the generated mappers wired the way Spring wires them
+ * and the default embed depth of one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private TweetMapper tweetMapper;
+    private UserMapper userMapper;
+    private List<Tweet> tweets;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        userMapper = BenchmarkData.userMapper();
+        tweetMapper = BenchmarkData.tweetMapper(userMapper);
+        users = BenchmarkData.users(size);
+        tweets = BenchmarkData.tweets(BenchmarkData.users(Math.max(1, size / 10)), size, BenchmarkData.random());
+    }
+
+    @Benchmark
+    public List<TweetResponseDto> tweetEntitiesToDtos() {
+        return tweetMapper.entitiesToDtos(tweets);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> userEntitiesToDtos() {
+        return userMapper.entitiesToDtos(users);
+    }
+}
@@ -0,0 +1,56 @@
+package com.cooksys.socialmedia.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate-limit decision, on a few hot users (every request contends on the same buckets) and on many
+ * users spread across the map. Refills are fast enough that both granted and refused paths are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"4", "100000"})
+    public int users;
+
+    private RateLimiter rateLimiter;
+    private String[] usernames;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter("user", true, 20, 1_000_000, 2 * users);
+        usernames = new String[users];
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "user" + i;
+        }
+    }
+
+    @Benchmark
+    public long singleThread() {
+        return rateLimiter.tryAcquire(usernames[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long contended() {
+        return rateLimiter.tryAcquire(usernames[ThreadLocalRandom.current().nextInt(users)]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.BenchmarkData;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of GET /users/@{username}/feed: collecting the user's and followed users'
+ * non-deleted tweets and sorting them newest first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedMergeBenchmark {
+
+    @Param({"10", "200"})
+    public int following;
+
+    @Param({"50"})
+    public int tweetsPerUser;
+
+    private User reader;
+
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkData.users(following + 1);
+        BenchmarkData.tweets(users, users.size() * tweetsPerUser, BenchmarkData.random());
+        reader = users.get(0);
+        reader.getFollowing().addAll(users.subList(1, users.size()));
+    }
+
+    @Benchmark
+    public List<Tweet> mergeFeed() {
+        return UserServiceImpl.mergeFeed(reader);
+    }
+}
@@ -0,0 +1,61 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.BenchmarkData;
+import com.cooksys.socialmedia.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashtag and mention extraction as done by createReply ({@code scanTokens}) and postTweet
+ * ({@code splitTokens}), over a rotating set of generated tweet bodies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetContentParserBenchmark {
+
+    private static final int CONTENTS = 1024;
+
+    private String[] contents;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        List<User> users = BenchmarkData.users(100);
+        contents = new String[CONTENTS];
+        for (int i = 0; i < CONTENTS; i++) {
+            contents[i] = BenchmarkData.content(users, random);
+        }
+    }
+
+    @Benchmark
+    public List<String> scanTokens() {
+        return TweetContentParser.scanTokens(nextContent());
+    }
+
+    @Benchmark
+    public List<String> splitTokens() {
+        return TweetContentParser.splitTokens(nextContent());
+    }
+
+    private String nextContent() {
+        next = (next + 1) & (CONTENTS - 1);
+        return contents[next];
+    }
+}
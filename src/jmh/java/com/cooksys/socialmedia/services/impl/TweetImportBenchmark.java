@@ -0,0 +1,114 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.SocialmediaApplication;
+import com.cooksys.socialmedia.dtos.CredentialsDto;
+import com.cooksys.socialmedia.dtos.ImportResultDto;
+import com.cooksys.socialmedia.dtos.ProfileDto;
+import com.cooksys.socialmedia.dtos.TweetRequestDto;
+import com.cooksys.socialmedia.dtos.UserRequestDto;
+import com.cooksys.socialmedia.services.TweetImportService;
+import com.cooksys.socialmedia.services.TweetService;
+import com.cooksys.socialmedia.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per tweet written one at a time, as POST /tweets does, against POST /tweets/import's chunked batches. Both
+ * run the real services in an application context on in-memory H2, so this compares the write paths rather than
+ * any particular database; the scores are per tweet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TweetImportBenchmark {
+
+    private static final int USERS = 100;
+    private static final int HASHTAGS = 1000;
+    private static final int TWEETS = 2000;
+
+    private ConfigurableApplicationContext context;
+    private TweetService tweetService;
+    private TweetImportService tweetImportService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // As arguments, since builder properties are only defaults and application.properties names Postgres
+        context = new SpringApplicationBuilder(SocialmediaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+        tweetService = context.getBean(TweetService.class);
+        tweetImportService = context.getBean(TweetImportService.class);
+        UserService userService = context.getBean(UserService.class);
+        for (int u = 0; u < USERS; u++) {
+            UserRequestDto user = new UserRequestDto();
+            user.setCredentials(credentials(u));
+            ProfileDto profile = new ProfileDto();
+            profile.setEmail("user" + u + "@example.com");
+            user.setProfile(profile);
+            userService.createUser(user);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TWEETS)
+    public void postOneByOne() {
+        for (int i = 0; i < TWEETS; i++) {
+            int t = next++;
+            tweetService.postTweet(new TweetRequestDto(content(t), credentials(t % USERS)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TWEETS)
+    public ImportResultDto importChunked() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < TWEETS; i++) {
+            int t = next++;
+            ndjson.append("{\"content\":\"").append(content(t)).append("\",\"credentials\":{\"username\":\"user")
+                    .append(t % USERS).append("\",\"password\":\"password\"}}\n");
+        }
+        return tweetImportService.importTweets(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String content(int t) {
+        return "Archived tweet " + t + " about #topic" + (t * 7919 % HASHTAGS) + " and #daily" + (t % 365)
+                + " for @user" + ((t + 1) % USERS);
+    }
+
+    private static CredentialsDto credentials(int u) {
+        CredentialsDto credentials = new CredentialsDto();
+        credentials.setUsername("user" + u);
+        credentials.setPassword("password");
+        return credentials;
+    }
+}
@@ -0,0 +1,118 @@
+package com.cooksys.socialmedia.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps the hot side of the partitioned tweet table small (see V3__partition_tweets.sql). Once a day it
+ * <ol>
+ *     <li>creates the monthly partitions for the coming months, so new tweets never land in the default partition,</li>
+ *     <li>moves soft-deleted tweets and tweets older than the hot retention into the archive partition, a batch per
+ *     transaction, and</li>
+ *     <li>drops the monthly partitions that the previous step emptied.</li>
+ * </ol>
+ * Archiving flips {@code archived}, which Postgres turns into a move between partitions; ids and every API response
+ * stay the same, so versions are left alone.
+ */
+@Component
+@ConditionalOnProperty(name = "socialmedia.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TweetArchiver {
+
+    private static final String PARTITION_PREFIX = "tweet_hot_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${socialmedia.archive.hot-retention:90d}")
+    private Duration hotRetention;
+
+    @Value("${socialmedia.archive.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${socialmedia.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${socialmedia.archive.cron:0 15 3 * * *}")
+    public void run() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(hotRetention);
+        createUpcomingPartitions();
+        long archived = archive(cutoff);
+        int dropped = dropEmptiedPartitions(cutoff);
+        log.info("Archived {} tweets and dropped {} hot partitions older than {}", archived, dropped, cutoff);
+    }
+
+    void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF tweet_hot FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            } catch (DataAccessException e) {
+                // Only happens when the default partition already holds rows from that month
+                log.warn("Could not create hot partition for {}", month, e);
+            }
+        }
+    }
+
+    long archive(LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        long archived = 0;
+        int moved;
+        do {
+            moved = jdbcTemplate.update("UPDATE tweet SET archived = true WHERE archived = false AND id IN ("
+                    + "SELECT id FROM tweet WHERE archived = false AND (deleted OR posted < ?) LIMIT ?)", before, batchSize);
+            archived += moved;
+        } while (moved == batchSize);
+        return archived;
+    }
+
+    int dropEmptiedPartitions(LocalDateTime cutoff) {
+        int dropped = 0;
+        for (String partition : jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'tweet_hot'::regclass", String.class)) {
+            YearMonth month = monthOf(partition);
+            if (month == null || month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(month);
+    }
+
+    // Null for partitions that aren't monthly, i.e. the default partition
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cooksys.socialmedia.cache;
+
+import com.cooksys.socialmedia.events.DomainEvent;
+import com.cooksys.socialmedia.outbox.DomainEventHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the {@link com.cooksys.socialmedia.entities.ChangeCounter} of every listing a delivered event changes.
+ * Counting off the request path keeps writes from queueing on a handful of hot counter rows; the price is that a
+ * listing's ETag only moves once the relay has delivered the change. A redelivered event bumps its counters again,
+ * which only costs clients one needless full response.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeCounters implements DomainEventHandler {
+
+    /** Every non-deleted tweet, with its author and the tweets it embeds. */
+    public static final String TWEETS = "tweets";
+
+    /** Every user. */
+    public static final String USERS = "users";
+
+    /** Every hashtag, with its first and last use. */
+    public static final String TAGS = "tags";
+
+    private static final String INCREMENT = "UPDATE change_counter SET changes = changes + 1 WHERE name = ?";
+    private static final String CREATE = "INSERT INTO change_counter (name, changes) VALUES (?, 1)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void handle(DomainEvent event) {
+        switch (event.type()) {
+            // A new tweet may bring new hashtags along
+            case TWEET_CREATED -> {
+                increment(TWEETS);
+                increment(TAGS);
+            }
+            case TWEET_DELETED -> increment(TWEETS);
+            case USER_CREATED -> increment(USERS);
+            // Tweets embed their author
+            case USER_UPDATED, USER_DELETED, USER_REACTIVATED -> {
+                increment(USERS);
+                increment(TWEETS);
+            }
+            default -> {
+            }
+        }
+    }
+
+    public void increment(String name) {
+        if (jdbcTemplate.update(INCREMENT, name) == 0) {
+            try {
+                jdbcTemplate.update(CREATE, name);
+            } catch (DuplicateKeyException e) {
+                // Another worker created it first
+                jdbcTemplate.update(INCREMENT, name);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cooksys.socialmedia.cache;
+
+import com.cooksys.socialmedia.events.TweetChangedEvent;
+import com.cooksys.socialmedia.events.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached DTOs on the instance that made the change, as soon as it commits, so the writer and anyone else
+ * reading through this instance see the change on their next request. These are local events rather than outbox
+ * deliveries: the caches are per instance and the relay hands each outbox event to one instance only.
+ * <p>
+ * Other instances aren't told, but {@link VersionedDtoCache} keeps every entry with the ETag it was loaded under and
+ * reloads when the current ETag differs, so their copies are dropped on the next read rather than served. Eviction
+ * here just frees the entry early.
+ */
+@Component
+@RequiredArgsConstructor
+public class DtoCacheInvalidationListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(DtoCacheNames.USERS, event.getUsername());
+        // Every cached tweet embeds its author, so any of them may now be stale
+        clear(DtoCacheNames.TWEETS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTweetChanged(TweetChangedEvent event) {
+        evict(DtoCacheNames.TWEETS, event.getTweetId());
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
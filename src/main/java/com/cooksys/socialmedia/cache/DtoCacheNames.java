@@ -0,0 +1,11 @@
+package com.cooksys.socialmedia.cache;
+
+public final class DtoCacheNames {
+
+    public static final String USERS = "users";
+
+    public static final String TWEETS = "tweets";
+
+    private DtoCacheNames() {
+    }
+}
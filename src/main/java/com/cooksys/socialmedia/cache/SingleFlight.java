@@ -0,0 +1,134 @@
+package com.cooksys.socialmedia.cache;
+
+import com.cooksys.socialmedia.config.ReadYourWritesInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one load. The first caller for an operation and key runs the loader;
+ * callers that arrive while it runs wait for it and get the same result, or the same exception. A successful result
+ * is then served for a short {@code window} before the next caller loads again.
+ * <p>
+ * Callers pinned to the primary by {@link ReadYourWritesInterceptor} always load for themselves, so a client never
+ * gets back a result loaded before its own write.
+ * <p>
+ * Every call is counted in {@code socialmedia.singleflight.calls}, tagged by operation and by whether it ran the
+ * loader ({@code leader}), waited for one ({@code joined}), took a result from the window ({@code window}) or
+ * skipped the layer ({@code bypass}). One minus leader over all calls is the share of loads collapsed away.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Meters> metersByOperation = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long windowNanos;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${socialmedia.single-flight.enabled:true}") boolean enabled,
+                        @Value("${socialmedia.single-flight.window:100ms}") Duration window) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T load(String operation, Object key, Supplier<T> loader) {
+        Meters meters = metersByOperation.computeIfAbsent(operation, this::meters);
+        if (!enabled || ReadYourWritesInterceptor.isPinnedToPrimary()) {
+            meters.bypass.increment();
+            return loader.get();
+        }
+        Key flightKey = new Key(operation, key);
+        Flight flight = new Flight();
+        while (true) {
+            Flight existing = flights.putIfAbsent(flightKey, flight);
+            if (existing == null) {
+                meters.leader.increment();
+                return (T) fly(flightKey, flight, loader);
+            }
+            if (!existing.isDone()) {
+                meters.joined.increment();
+                return (T) await(existing);
+            }
+            if (existing.expiresAt - System.nanoTime() > 0) {
+                meters.window.increment();
+                return (T) await(existing);
+            }
+            // Expired but not yet swept; take its place
+            flights.remove(flightKey, existing);
+        }
+    }
+
+    private Object fly(Key flightKey, Flight flight, Supplier<?> loader) {
+        Object value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            // Waiters see the failure; the next caller tries again
+            flights.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        flight.expiresAt = System.nanoTime() + windowNanos;
+        flight.complete(value);
+        if (windowNanos > 0) {
+            CompletableFuture.delayedExecutor(windowNanos, TimeUnit.NANOSECONDS)
+                    .execute(() -> flights.remove(flightKey, flight));
+        } else {
+            flights.remove(flightKey, flight);
+        }
+        return value;
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's own exception so the controller advice maps it as usual
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Meters meters(String operation) {
+        return new Meters(counter(operation, "leader"), counter(operation, "joined"),
+                counter(operation, "window"), counter(operation, "bypass"));
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("socialmedia.singleflight.calls")
+                .description("Reads through the single-flight layer, by whether they ran the load")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(String operation, Object key) {
+    }
+
+    private record Meters(Counter leader, Counter joined, Counter window, Counter bypass) {
+    }
+
+    private static final class Flight extends CompletableFuture<Object> {
+
+        // Written before complete() and read after isDone(), which orders it
+        private long expiresAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.cooksys.socialmedia.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A JSON array of tweets whose elements are already serialized, written out as-is by
+ * {@link com.cooksys.socialmedia.config.TweetJsonArrayHttpMessageConverter}.
+ */
+@AllArgsConstructor
+@Getter
+public class TweetJsonArray {
+
+    private final List<byte[]> elements;
+
+}
@@ -0,0 +1,63 @@
+package com.cooksys.socialmedia.cache;
+
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.mappers.TweetMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds each tweet's serialized JSON keyed by id and rendered version, so a popular tweet is mapped
+ * and serialized once no matter how many lists and feeds include it.
+ */
+@Component
+public class TweetJsonCache {
+
+    private final TweetMapper tweetMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<String, byte[]> fragments;
+
+    public TweetJsonCache(TweetMapper tweetMapper, ObjectMapper objectMapper,
+                          @Value("${socialmedia.tweets.json-cache.enabled:true}") boolean enabled,
+                          @Value("${socialmedia.tweets.json-cache.max-bytes:67108864}") long maxBytes) {
+        this.tweetMapper = tweetMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] json) -> json.length)
+                .build();
+    }
+
+    public TweetJsonArray serialize(List<Tweet> tweets) {
+        List<byte[]> elements = new ArrayList<>(tweets.size());
+        for (Tweet tweet : tweets) {
+            elements.add(serialize(tweet));
+        }
+        return new TweetJsonArray(elements);
+    }
+
+    private byte[] serialize(Tweet tweet) {
+        if (!enabled) {
+            return write(tweet);
+        }
+        String key = tweet.getId() + ":" + tweetMapper.renderedVersion(tweet);
+        return fragments.get(key, k -> write(tweet));
+    }
+
+    private byte[] write(Tweet tweet) {
+        try {
+            return objectMapper.writeValueAsBytes(tweetMapper.entityToDto(tweet));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cooksys.socialmedia.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Caches DTOs together with the ETag that was current when they were loaded, so the body served under an ETag is
+ * never older than the data that ETag was computed from. A lookup under any other ETag drops the entry and loads
+ * again; that covers writes made on other instances, which don't evict this one's entries. Concurrent misses on
+ * one key load it once.
+ * <p>
+ * A null ETag (nothing to version, e.g. an unknown id) skips the cache and runs the loader.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersionedDtoCache {
+
+    private final CacheManager cacheManager;
+
+    public <T> T get(String cacheName, Object key, String eTag, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || eTag == null) {
+            return loader.get();
+        }
+        Versioned<T> cached = load(cache, key, eTag, loader);
+        if (!eTag.equals(cached.eTag())) {
+            cache.evict(key);
+            cached = load(cache, key, eTag, loader);
+        }
+        return cached.dto();
+    }
+
+    private static <T> Versioned<T> load(Cache cache, Object key, String eTag, Supplier<T> loader) {
+        try {
+            return cache.get(key, () -> new Versioned<>(eTag, loader.get()));
+        } catch (Cache.ValueRetrievalException e) {
+            // Let the loader's own exception, such as a NotFoundException, reach the controller advice
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Versioned<T>(String eTag, T dto) {
+    }
+}
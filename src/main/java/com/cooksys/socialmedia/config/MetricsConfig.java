@@ -0,0 +1,39 @@
+package com.cooksys.socialmedia.config;
+
+import com.cooksys.socialmedia.metrics.HandlerMethodObservationConvention;
+import com.cooksys.socialmedia.metrics.RepositoryRowsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Micrometer instrumentation beyond what Boot binds on its own. Boot already records request
+ * latency, repository invocation timers, Hibernate statistics and Hikari pool metrics; this adds the
+ * controller method to request metrics and the number of rows each repository call returns.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HandlerMethodObservationConvention handlerMethodObservationConvention() {
+        return new HandlerMethodObservationConvention();
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryRowsBeanPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryRowsInterceptor(
+                                    meterRegistry.getObject(), repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
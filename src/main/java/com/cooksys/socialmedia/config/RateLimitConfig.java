@@ -0,0 +1,30 @@
+package com.cooksys.socialmedia.config;
+
+import com.cooksys.socialmedia.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The token buckets in front of the write endpoints: one per user for writes whose credentials check out, and one
+ * per client address for attempts whose credentials don't.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter userRateLimiter(@Value("${socialmedia.rate-limit.enabled:true}") boolean enabled,
+                                       @Value("${socialmedia.rate-limit.capacity:20}") int capacity,
+                                       @Value("${socialmedia.rate-limit.refill-per-second:5}") double refillPerSecond,
+                                       @Value("${socialmedia.rate-limit.max-buckets:100000}") int maxBuckets) {
+        return new RateLimiter("user", enabled, capacity, refillPerSecond, maxBuckets);
+    }
+
+    @Bean
+    public RateLimiter failedAuthRateLimiter(@Value("${socialmedia.rate-limit.enabled:true}") boolean enabled,
+                                             @Value("${socialmedia.rate-limit.failed-auth.capacity:10}") int capacity,
+                                             @Value("${socialmedia.rate-limit.failed-auth.refill-per-second:0.2}") double refillPerSecond,
+                                             @Value("${socialmedia.rate-limit.max-buckets:100000}") int maxBuckets) {
+        return new RateLimiter("address", enabled, capacity, refillPerSecond, maxBuckets);
+    }
+}
@@ -0,0 +1,45 @@
+package com.cooksys.socialmedia.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Starts a Netty server next to Tomcat for the reactive read routes. A handful of event-loop
+ * threads serve every connection, and rows are encoded into the response as R2DBC emits them,
+ * so slow clients hold neither a request thread nor a fully buffered body. Writes stay on the
+ * servlet stack.
+ * <p>
+ * Only started when {@code socialmedia.reactive.enabled} is true. The routes need no credentials, like their
+ * servlet counterparts, but bypass the servlet filters and interceptors. Every read goes to the one database
+ * {@code spring.r2dbc.url} names: {@link ReadWriteRoutingDataSource} and {@link ReadYourWritesInterceptor} don't
+ * apply here. Pointing it at the replica makes these reads lag the way unpinned servlet reads do, including right
+ * after the client's own write. Pointing it at the primary gives up the replica's offloading.
+ */
+@Configuration
+@ConditionalOnProperty(name = "socialmedia.reactive.enabled", havingValue = "true")
+public class ReactiveReadServerConfig {
+
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveReadServer(RouterFunction<ServerResponse> reactiveReadRoutes,
+                                               ObjectMapper objectMapper,
+                                               @Value("${socialmedia.reactive.port}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        ReactorHttpHandlerAdapter adapter =
+                new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(reactiveReadRoutes, strategies));
+
+        return HttpServer.create().port(port).handle(adapter).bindNow();
+    }
+}
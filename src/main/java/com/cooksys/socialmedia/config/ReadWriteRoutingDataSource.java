@@ -0,0 +1,43 @@
+package com.cooksys.socialmedia.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary, unless the
+ * current request is pinned to the primary by {@link ReadYourWritesInterceptor}.
+ * <p>
+ * Caches are filled from whichever database served the read. The DTO caches keep each entry with the ETag it was
+ * loaded under and reload it when a request's ETag differs. The ETag is read from the same database as the rest
+ * of the request, so a pinned writer's ETag comes from the primary and it gets its own change back, while other
+ * clients get it once the replica has it.
+ * <p>
+ * The second-level cache has no such check, and a DTO mapped from a stale second-level entry is as stale as that
+ * entry. A write evicts the entries it changes, but a client that isn't pinned
+ * can miss the cache while the replica still lags and put the old row back, where it stays until the next change
+ * to it or until the region's expiry in {@code application.conf}. Keep replica lag well under the read-your-writes
+ * window so the chance of it stays small.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWritesInterceptor.isPinnedToPrimary()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
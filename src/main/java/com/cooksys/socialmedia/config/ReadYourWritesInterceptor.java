@@ -0,0 +1,72 @@
+package com.cooksys.socialmedia.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Keeps a client on the primary for a short window after its own write, so it reads what it just
+ * wrote even while the replica lags. Every write request hands the client a cookie holding the end of
+ * the window, and requests that carry an unexpired cookie are pinned to the primary.
+ * <p>
+ * Pinning follows the cookie, not the user: reads carry no credentials, so the same user on another client isn't
+ * pinned. The cookie isn't signed, so a value further out than one window from now can't have come from here and
+ * is ignored; a client can pin at most its own requests, for at most one window past its last cookie.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String COOKIE_NAME = "socialmedia-primary-until";
+
+    private static final String PINNED_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".PINNED";
+
+    @Value("${socialmedia.datasource.read-your-writes-window:5s}")
+    private Duration window;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (write || withinWindow(request)) {
+            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    public static boolean isPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private boolean withinWindow(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    long now = System.currentTimeMillis();
+                    return until > now && until <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
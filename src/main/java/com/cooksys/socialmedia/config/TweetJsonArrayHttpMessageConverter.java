@@ -0,0 +1,113 @@
+package com.cooksys.socialmedia.config;
+
+import com.cooksys.socialmedia.cache.TweetJsonArray;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link TweetJsonArray} by stitching its pre-serialized elements into one JSON array. For
+ * binary media types each element is transcoded token by token, which skips DTO mapping just the same.
+ */
+public class TweetJsonArrayHttpMessageConverter extends AbstractHttpMessageConverter<TweetJsonArray> {
+
+    private final JsonFactory jsonFactory;
+    private final Map<MediaType, JsonFactory> binaryFactories;
+
+    public TweetJsonArrayHttpMessageConverter(JsonFactory jsonFactory, Map<MediaType, JsonFactory> binaryFactories) {
+        this.jsonFactory = jsonFactory;
+        this.binaryFactories = new LinkedHashMap<>(binaryFactories);
+        List<MediaType> mediaTypes = new ArrayList<>();
+        mediaTypes.add(MediaType.APPLICATION_JSON);
+        mediaTypes.addAll(binaryFactories.keySet());
+        setSupportedMediaTypes(mediaTypes);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TweetJsonArray.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected TweetJsonArray readInternal(Class<? extends TweetJsonArray> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Tweet arrays are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(TweetJsonArray tweets, MediaType contentType) {
+        if (binaryFactoryFor(contentType) != null) {
+            return null;
+        }
+        List<byte[]> elements = tweets.getElements();
+        long length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        return length;
+    }
+
+    @Override
+    protected void writeInternal(TweetJsonArray tweets, HttpOutputMessage outputMessage) throws IOException {
+        JsonFactory binaryFactory = binaryFactoryFor(outputMessage.getHeaders().getContentType());
+        if (binaryFactory == null) {
+            writeJson(tweets, outputMessage.getBody());
+        } else {
+            transcode(tweets, binaryFactory, outputMessage.getBody());
+        }
+    }
+
+    private JsonFactory binaryFactoryFor(MediaType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (Map.Entry<MediaType, JsonFactory> entry : binaryFactories.entrySet()) {
+            if (entry.getKey().isCompatibleWith(contentType)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void writeJson(TweetJsonArray tweets, OutputStream body) throws IOException {
+        body.write('[');
+        boolean first = true;
+        for (byte[] element : tweets.getElements()) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(element);
+            first = false;
+        }
+        body.write(']');
+    }
+
+    private void transcode(TweetJsonArray tweets, JsonFactory binaryFactory, OutputStream body) throws IOException {
+        try (JsonGenerator generator = binaryFactory.createGenerator(body)) {
+            generator.writeStartArray();
+            for (byte[] element : tweets.getElements()) {
+                try (JsonParser parser = jsonFactory.createParser(element)) {
+                    parser.nextToken();
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cooksys.socialmedia.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Registers CBOR and Smile alongside JSON so clients can pick a compact binary encoding through the
+ * Accept header. All three share the JSON data model described by the schemas under /schemas.
+ * Also registers the interceptor that pins a client's requests to the primary database right after
+ * its own writes.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWritesInterceptor);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public TweetJsonArrayHttpMessageConverter tweetJsonArrayHttpMessageConverter(ObjectMapper objectMapper,
+                                                                                 MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                                                                                 MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        return new TweetJsonArrayHttpMessageConverter(objectMapper.getFactory(), Map.of(
+                MediaType.APPLICATION_CBOR, cborHttpMessageConverter.getObjectMapper().getFactory(),
+                APPLICATION_SMILE, smileHttpMessageConverter.getObjectMapper().getFactory()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.dtos.CacheRegionStatisticsDto;
+import com.cooksys.socialmedia.services.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/cache")
+public class CacheController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    /**
+     * Retrieves hit, miss and put counts for every second-level cache region, including the
+     * hashtag-label natural-id region and the query cache region backing the username lookup.
+     */
+    @GetMapping("/stats")
+    public List<CacheRegionStatisticsDto> getRegionStatistics() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+}
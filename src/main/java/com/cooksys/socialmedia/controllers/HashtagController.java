@@ -3,12 +3,14 @@ package com.cooksys.socialmedia.controllers;
 
 import com.cooksys.socialmedia.dtos.HashtagResponseDto;
 import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.services.ETagService;
 import com.cooksys.socialmedia.services.HashtagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,14 +20,24 @@ import java.util.List;
 public class HashtagController {
 
     private final HashtagService hashtagService;
+    private final ETagService eTagService;
 
     @GetMapping
-    public List<HashtagResponseDto> retrieveAllTags() {
+    public List<HashtagResponseDto> retrieveAllTags(WebRequest webRequest) {
+        String eTag = eTagService.getTagsETag();
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return hashtagService.getAllTags();
     }
 
     @GetMapping("/{label}")
-    public List<TweetResponseDto> retrieveTweetsBylabel(@PathVariable("label") String label) {
+    public List<TweetResponseDto> retrieveTweetsBylabel(@PathVariable("label") String label, WebRequest webRequest) {
+        String tagsETag = eTagService.getTagsETag();
+        String tweetsETag = eTagService.getTweetsETag();
+        if (tagsETag != null && tweetsETag != null && webRequest.checkNotModified(tagsETag + "-" + tweetsETag)) {
+            return null;
+        }
         return hashtagService.getTweetsByTag(label);
     }
 
@@ -1,5 +1,9 @@
 package com.cooksys.socialmedia.controllers;
 
+import com.cooksys.socialmedia.cache.DtoCacheNames;
+import com.cooksys.socialmedia.cache.SingleFlight;
+import com.cooksys.socialmedia.cache.TweetJsonArray;
+import com.cooksys.socialmedia.cache.VersionedDtoCache;
 import com.cooksys.socialmedia.dtos.*;
 import com.cooksys.socialmedia.entities.Credentials;
 import com.cooksys.socialmedia.exceptions.NotAuthorizedException;
@@ -10,12 +14,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cooksys.socialmedia.ratelimit.WriteRateLimiter;
+import com.cooksys.socialmedia.services.ETagService;
 import com.cooksys.socialmedia.services.HashtagService;
+import com.cooksys.socialmedia.services.TweetImportService;
 
 import com.cooksys.socialmedia.services.TweetService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -24,17 +35,27 @@ import java.util.List;
 public class TweetController {
 
     private final TweetService tweetService;
+    private final TweetImportService tweetImportService;
     private final HashtagService hashtagService;
+    private final ETagService eTagService;
+    private final WriteRateLimiter writeRateLimiter;
+    private final SingleFlight singleFlight;
+    private final VersionedDtoCache dtoCache;
 
 
     /**
      * Retrieves all non-deleted tweets in reverse-chronological order.
+     * Answers 304 when the client's If-None-Match still matches the tweet and user tables.
      *
      * @return An array of tweets in reverse-chronological order.
      */
     @GetMapping
-    public List<TweetResponseDto> getAllTweets() {
-        return tweetService.getAllTweets();
+    public TweetJsonArray getAllTweets(WebRequest webRequest) {
+        String eTag = eTagService.getTweetsETag();
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return tweetService.getAllTweetsAsJson();
     }
 
     /**
@@ -70,41 +91,73 @@ public class TweetController {
     public TweetResponseDto deleteTweet(@PathVariable("id") Long id, @RequestBody CredentialsDto credentials) {
         return tweetService.deleteTweetById(id, credentials);
     }
+    /**
+     * Retrieves several tweets in one request, e.g. {@code GET /tweets?ids=4,8,15}. The response array lines up
+     * with the requested ids; a tweet that doesn't exist or is deleted appears as null in its position.
+     */
+    @GetMapping(params = "ids")
+    public List<TweetResponseDto> getTweetsByIds(@RequestParam("ids") List<Long> ids) {
+        return tweetService.getTweetsByIds(ids);
+    }
+
     @GetMapping("/{id}")
-    public TweetResponseDto getTweetById(@PathVariable("id") Long id) {
-        return tweetService.getTweetById(id);
+    public TweetResponseDto getTweetById(@PathVariable("id") Long id, WebRequest webRequest) {
+        String eTag = eTagService.getTweetETag(id);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        // The body is loaded at or after the version in the ETag, never served from an older cached copy
+        return singleFlight.load("getTweetById", eTag == null ? id : eTag,
+                () -> dtoCache.get(DtoCacheNames.TWEETS, id, eTag, () -> tweetService.getTweetById(id)));
 
     }
 
     @GetMapping("/{id}/reposts")
     public List<TweetResponseDto> getRepostsById(@PathVariable("id") Long id) {
-        return tweetService.getRepostsById(id);
+        return singleFlight.load("getRepostsById", id, () -> tweetService.getRepostsById(id));
     }
 
     @GetMapping("/{id}/likes")
     public List<UserResponseDto> getLikesById(@PathVariable("id") Long id) {
-        return tweetService.getLikesById(id);
+        return singleFlight.load("getLikesById", id, () -> tweetService.getLikesById(id));
     }
 
     @PostMapping("/{id}/reply")
-    public TweetResponseDto createReply(@PathVariable("id") Long id, @RequestBody TweetRequestDto tweetRequest) {
+    public TweetResponseDto createReply(@PathVariable("id") Long id, @RequestBody TweetRequestDto tweetRequest,
+                                        HttpServletRequest request) {
+        writeRateLimiter.acquire(username(tweetRequest), password(tweetRequest), request.getRemoteAddr());
         return tweetService.createReply(id, tweetRequest);
     }
 
     @PostMapping("/{id}/repost")
-    public TweetResponseDto createRepost(@PathVariable("id") Long id, @RequestBody CredentialsDto credentials) {
+    public TweetResponseDto createRepost(@PathVariable("id") Long id, @RequestBody CredentialsDto credentials,
+                                         HttpServletRequest request) {
+        writeRateLimiter.acquire(credentials.getUsername(), credentials.getPassword(), request.getRemoteAddr());
         return tweetService.createRepost(id, credentials);
     }
 
     @GetMapping("/{id}/context")
     public ContextDto getContext(@PathVariable("id") Long id) {
-        return tweetService.getContext(id);
+        return singleFlight.load("getContext", id, () -> tweetService.getContext(id));
     }
 	
 	@PostMapping
-	public TweetResponseDto postTweet(@RequestBody TweetRequestDto tweetRequest) {
+	public TweetResponseDto postTweet(@RequestBody TweetRequestDto tweetRequest, HttpServletRequest request) {
+		writeRateLimiter.acquire(username(tweetRequest), password(tweetRequest), request.getRemoteAddr());
 		return tweetService.postTweet(tweetRequest);
 	}
+
+	/**
+	 * Imports tweets sent as newline-delimited JSON, one tweet request (content and credentials) per line.
+	 * Lines that fail are skipped and reported by line number; the rest are imported.
+	 *
+	 * @return How many tweets were imported and why the others were not.
+	 */
+	@PostMapping(path = "/import", consumes = "application/x-ndjson")
+	public ImportResultDto importTweets(InputStream ndjson) throws IOException {
+		return tweetImportService.importTweets(ndjson);
+	}
+
 	@GetMapping("{id}/tags")
 	public List<HashtagResponseDto> retrieveTagsById(@PathVariable("id") Long tweetId) {
 		return tweetService.getTagsByTweetId(tweetId);
@@ -116,9 +169,16 @@ public class TweetController {
 	}
 	
 	@PostMapping("/{id}/like")
-	public void postLike(@PathVariable("id") Long id, @RequestBody Credentials credentialsDto) {
+	public void postLike(@PathVariable("id") Long id, @RequestBody Credentials credentialsDto, HttpServletRequest request) {
+		writeRateLimiter.acquire(credentialsDto.getUsername(), credentialsDto.getPassword(), request.getRemoteAddr());
 		tweetService.postTweetLike(id, credentialsDto);
 }
 	
-}
+    private static String username(TweetRequestDto tweetRequest) {
+        return tweetRequest.getCredentials() == null ? null : tweetRequest.getCredentials().getUsername();
+    }
 
+    private static String password(TweetRequestDto tweetRequest) {
+        return tweetRequest.getCredentials() == null ? null : tweetRequest.getCredentials().getPassword();
+    }
+}
@@ -1,15 +1,27 @@
 package com.cooksys.socialmedia.controllers;
 
 
+import com.cooksys.socialmedia.cache.DtoCacheNames;
+import com.cooksys.socialmedia.cache.TweetJsonArray;
+import com.cooksys.socialmedia.cache.VersionedDtoCache;
 import com.cooksys.socialmedia.dtos.CredentialsDto;
+import com.cooksys.socialmedia.dtos.MentionsPageDto;
 import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UnreadMentionsDto;
 import com.cooksys.socialmedia.dtos.UserRequestDto;
 import com.cooksys.socialmedia.dtos.UserResponseDto;
 import com.cooksys.socialmedia.exceptions.NotFoundException;
+import com.cooksys.socialmedia.ratelimit.WriteRateLimiter;
+import com.cooksys.socialmedia.services.ETagService;
 import com.cooksys.socialmedia.services.TweetService;
 import com.cooksys.socialmedia.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 
@@ -20,10 +32,26 @@ public class UserController {
 
     private final UserService userService;
     private final TweetService tweetService;
+    private final ETagService eTagService;
+    private final WriteRateLimiter writeRateLimiter;
+    private final VersionedDtoCache dtoCache;
 
 
+    /**
+     * Retrieves several users in one request, e.g. {@code GET /users?usernames=ada,alan}. The response array
+     * lines up with the requested usernames; a user that doesn't exist or is deleted appears as null in its position.
+     */
+    @GetMapping(params = "usernames")
+    public List<UserResponseDto> getUsersByUsernames(@RequestParam("usernames") List<String> usernames) {
+        return userService.getUsersByUsernames(usernames);
+    }
+
     @GetMapping
-    public List<UserResponseDto> getAllUsers() {
+    public List<UserResponseDto> getAllUsers(WebRequest webRequest) {
+        String eTag = eTagService.getUsersETag();
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         return userService.getAllUsers();
     }
 
@@ -51,8 +79,12 @@ public class UserController {
      * @return 'User' - The user retrieved with the given username.
      */
     @GetMapping("/@{username}")
-    public UserResponseDto getUserByUsername(@PathVariable("username") String username) {
-        return userService.getUserByUsername(username);
+    public UserResponseDto getUserByUsername(@PathVariable("username") String username, WebRequest webRequest) {
+        String eTag = eTagService.getUserETag(username);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return dtoCache.get(DtoCacheNames.USERS, username, eTag, () -> userService.getUserByUsername(username));
     }
 
     /**
@@ -88,13 +120,15 @@ public class UserController {
      * 'Credentials'
      */
     @PostMapping("/@{username}/unfollow")
-    public void unfollowUser(@PathVariable("username") String username,@RequestBody CredentialsDto credentials) {
+    public void unfollowUser(@PathVariable("username") String username,@RequestBody CredentialsDto credentials,
+                             HttpServletRequest request) {
+        writeRateLimiter.acquire(credentials.getUsername(), credentials.getPassword(), request.getRemoteAddr());
         userService.unfollowUser(username, credentials);
     }
 
     @GetMapping("/@{username}/feed")
-    public List<TweetResponseDto> getFeed(@PathVariable("username") String username) {
-        return userService.getFeed(username);
+    public TweetJsonArray getFeed(@PathVariable("username") String username) {
+        return userService.getFeedAsJson(username);
     }
 
     @GetMapping("/@{username}/followers")
@@ -126,7 +160,12 @@ public class UserController {
      * ['Tweet']
      */
     @GetMapping("/@{username}/tweets")
-    public List<TweetResponseDto> getTweetsByUsername(@PathVariable("username") String username) {
+    public List<TweetResponseDto> getTweetsByUsername(@PathVariable("username") String username, WebRequest webRequest) {
+        String eTag = eTagService.getUserETag(username);
+        String tweetsETag = eTagService.getTweetsETag();
+        if (eTag != null && tweetsETag != null && webRequest.checkNotModified(eTag + "-" + tweetsETag)) {
+            return null;
+        }
         return userService.getTweetsByUsername(username);
     }
 
@@ -144,13 +183,64 @@ public class UserController {
      * </p>
      */
     @PostMapping("/@{username}/follow")
-    public void followUser(@PathVariable("username") String username, @RequestBody CredentialsDto credentialsDto) {
+    public void followUser(@PathVariable("username") String username, @RequestBody CredentialsDto credentialsDto,
+                           HttpServletRequest request) {
+        writeRateLimiter.acquire(credentialsDto.getUsername(), credentialsDto.getPassword(), request.getRemoteAddr());
         userService.followUser(username, credentialsDto);
     }
     
+    /**
+     * Suggests up to {@code limit} active users to follow: the accounts most followed by the users this user
+     * follows, excluding those they already follow.
+     */
+    @GetMapping("/@{username}/suggestions")
+    public List<UserResponseDto> getSuggestions(@PathVariable("username") String username,
+                                                @RequestParam(value = "limit", required = false) Integer limit) {
+        return userService.getSuggestions(username, limit);
+    }
+
+    /**
+     * Retrieves a page of the live tweets mentioning the user, newest first, {@code limit} at a time. When there
+     * are more, a {@code Link} header with {@code rel="next"} carries the URL of the next page.
+     * <p>
+     * Without {@code limit} or {@code cursor} it still returns every mention at once, as it did before paging. That
+     * form is deprecated and answered with a {@code Deprecation} header; pass {@code limit} to page.
+     */
     @GetMapping("/@{username}/mentions")
-    public List<TweetResponseDto> getTweetsByMentions(@PathVariable("username") String username) {
-        return tweetService.getTweetByUserMentions(username);
+    public ResponseEntity<List<TweetResponseDto>> getTweetsByMentions(@PathVariable("username") String username,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "limit", required = false) Integer limit) {
+        MentionsPageDto page = tweetService.getTweetByUserMentions(username, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (cursor == null && limit == null) {
+            response.header("Deprecation", "true");
+        }
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getTweets());
+    }
+
+    /**
+     * How many tweets have mentioned the user since they last marked their mentions read.
+     */
+    @GetMapping("/@{username}/mentions/unread")
+    public UnreadMentionsDto getUnreadMentions(@PathVariable("username") String username) {
+        return userService.getUnreadMentions(username);
+    }
+
+    /**
+     * Marks every mention so far read, given the user's own credentials.
+     * <p>
+     * Request:
+     * 'Credentials'
+     */
+    @PostMapping("/@{username}/mentions/read")
+    public void markMentionsRead(@PathVariable("username") String username, @RequestBody CredentialsDto credentials) {
+        userService.markMentionsRead(username, credentials);
     }
     @PatchMapping("/@{username}")
     public UserResponseDto updateUser(@PathVariable("username") String username, @RequestBody UserRequestDto userRequestDto) {
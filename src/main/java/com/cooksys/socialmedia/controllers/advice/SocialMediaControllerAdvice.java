@@ -4,7 +4,11 @@ import com.cooksys.socialmedia.dtos.ErrorDto;
 import com.cooksys.socialmedia.exceptions.BadRequestException;
 import com.cooksys.socialmedia.exceptions.NotAuthorizedException;
 import com.cooksys.socialmedia.exceptions.NotFoundException;
+import com.cooksys.socialmedia.exceptions.ServiceUnavailableException;
+import com.cooksys.socialmedia.exceptions.TooManyRequestsException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -33,4 +37,18 @@ public class SocialMediaControllerAdvice {
         return new ErrorDto(notFoundException.getMessage());
     }
 
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ErrorDto handleTooManyRequestsException(HttpServletResponse response, TooManyRequestsException tooManyRequestsException) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(tooManyRequestsException.getRetryAfterSeconds()));
+        return new ErrorDto(tooManyRequestsException.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ErrorDto handleServiceUnavailableException(HttpServletResponse response, ServiceUnavailableException serviceUnavailableException) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(serviceUnavailableException.getRetryAfterSeconds()));
+        return new ErrorDto(serviceUnavailableException.getMessage());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.cooksys.socialmedia.controllers.reactive;
+
+import com.cooksys.socialmedia.dtos.ErrorDto;
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.exceptions.NotFoundException;
+import com.cooksys.socialmedia.services.ReactiveReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only routes served by the reactive server. Paths and response bodies match the servlet
+ * controllers, and a {@link NotFoundException} becomes the same 404 {@link ErrorDto} that
+ * SocialMediaControllerAdvice returns.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveReadRoutes() {
+        return RouterFunctions.route()
+                .GET("/tweets", this::retrieveAllTweets)
+                .GET("/tweets/{id}", this::retrieveTweet)
+                .GET("/users/@{username}", this::retrieveUser)
+                .GET("/users/@{username}/tweets", this::retrieveUserTweets)
+                .GET("/tags/{label}", this::retrieveTweetsByLabel)
+                .onError(NotFoundException.class, (e, request) -> ServerResponse.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new ErrorDto(e.getMessage())))
+                .build();
+    }
+
+    private Mono<ServerResponse> retrieveAllTweets(ServerRequest request) {
+        return streamTweets(reactiveReadService.getAllTweets());
+    }
+
+    private Mono<ServerResponse> retrieveTweet(ServerRequest request) {
+        return reactiveReadService.getTweetById(Long.valueOf(request.pathVariable("id")))
+                .flatMap(tweet -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(tweet));
+    }
+
+    private Mono<ServerResponse> retrieveUser(ServerRequest request) {
+        return reactiveReadService.getUserByUsername(request.pathVariable("username"))
+                .flatMap(user -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(user));
+    }
+
+    private Mono<ServerResponse> retrieveUserTweets(ServerRequest request) {
+        return streamTweets(reactiveReadService.getTweetsByUsername(request.pathVariable("username")));
+    }
+
+    private Mono<ServerResponse> retrieveTweetsByLabel(ServerRequest request) {
+        return streamTweets(reactiveReadService.getTweetsByTag(request.pathVariable("label")));
+    }
+
+    // Waits for the first signal before committing the 200, so an error raised ahead of the first row
+    // still reaches the onError mapping instead of cutting off a started response
+    private Mono<ServerResponse> streamTweets(Flux<TweetResponseDto> tweets) {
+        return tweets.switchOnFirst((first, all) -> first.hasError()
+                        ? Mono.error(first.getThrowable())
+                        : ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(all, TweetResponseDto.class), false)
+                .singleOrEmpty();
+    }
+}
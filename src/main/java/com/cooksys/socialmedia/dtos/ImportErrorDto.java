@@ -0,0 +1,16 @@
+package com.cooksys.socialmedia.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ImportErrorDto {
+
+    private long line;
+
+    private String message;
+
+}
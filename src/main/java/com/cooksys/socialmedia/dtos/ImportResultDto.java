@@ -0,0 +1,22 @@
+package com.cooksys.socialmedia.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor
+@Data
+public class ImportResultDto {
+
+    private long imported;
+
+    private long failed;
+
+    private List<ImportErrorDto> errors = new ArrayList<>();
+
+    // Failures beyond socialmedia.import.max-errors are counted here instead of listed
+    private long errorsOmitted;
+
+}
@@ -0,0 +1,18 @@
+package com.cooksys.socialmedia.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor
+@Data
+public class MentionsPageDto {
+
+    private List<TweetResponseDto> tweets = new ArrayList<>();
+
+    // Null on the last page
+    private String nextCursor;
+
+}
@@ -0,0 +1,14 @@
+package com.cooksys.socialmedia.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class UnreadMentionsDto {
+
+    private int unread;
+
+}
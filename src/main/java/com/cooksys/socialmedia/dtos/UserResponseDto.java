@@ -1,5 +1,6 @@
 package com.cooksys.socialmedia.dtos;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -7,6 +8,7 @@ import java.sql.Timestamp;
 
 @NoArgsConstructor
 @Data
+@JsonPropertyOrder({"username", "joined", "profile"})
 public class UserResponseDto {
 
     private String username;
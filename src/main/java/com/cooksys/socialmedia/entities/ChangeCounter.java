@@ -0,0 +1,24 @@
+package com.cooksys.socialmedia.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How many committed changes have touched one of the listings, e.g. every tweet. The list ETags are built from
+ * these, so answering a conditional request for a listing is a primary key lookup rather than a scan of the
+ * listed table. Bumped by {@link com.cooksys.socialmedia.cache.ChangeCounters}.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "change_counter")
+public class ChangeCounter {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long changes;
+
+}
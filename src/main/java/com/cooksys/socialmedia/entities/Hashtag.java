@@ -3,8 +3,11 @@ package com.cooksys.socialmedia.entities;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -13,21 +16,25 @@ import java.util.List;
 @NoArgsConstructor
 @Data
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache(region = "hashtag-label")
 public class Hashtag {
     @Id
     @GeneratedValue
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String label;
 
     @CreationTimestamp
     private Timestamp firstUsed;
 
-    @UpdateTimestamp
+    // Later uses are written behind by HashtagLastUsedTracker rather than by updating this entity
+    @CreationTimestamp
     private Timestamp lastUsed;
 
-    @ManyToMany(mappedBy = "hashtags", cascade = CascadeType.ALL)
+    @ManyToMany(mappedBy = "hashtags")
     private List<Tweet> tweets = new ArrayList<>();
 
 }
\ No newline at end of file
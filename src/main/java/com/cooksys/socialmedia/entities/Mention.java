@@ -0,0 +1,47 @@
+package com.cooksys.socialmedia.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * A row of the {@code user_mentions} join table behind {@link Tweet#getMentionedUsers()}, mapped on its own so the
+ * mentions inbox can page through it. {@code posted} is the mentioning tweet's, copied into the row when it is
+ * inserted, so a user's mentions come off the (user_id, posted, tweet_id) index newest first. Rows are only ever
+ * written through {@code Tweet.mentionedUsers}.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Immutable
+@Table(name = "user_mentions")
+@IdClass(Mention.Key.class)
+public class Mention {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "tweet_id")
+    private Long tweetId;
+
+    @Column(nullable = false)
+    private Timestamp posted;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Data
+    public static class Key implements Serializable {
+
+        private Long userId;
+
+        private Long tweetId;
+
+    }
+}
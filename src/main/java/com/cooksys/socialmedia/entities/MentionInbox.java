@@ -0,0 +1,33 @@
+package com.cooksys.socialmedia.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * A user's count of unread mentions, created with the user and kept current by the writes that add or remove
+ * mentions, so asking whether there is anything new is a primary key lookup. {@code readThrough} is when the user
+ * last marked their mentions read; tweets posted before it no longer count.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "mention_inbox")
+public class MentionInbox {
+
+    @Id
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(nullable = false)
+    private int unreadCount;
+
+    private Timestamp readThrough;
+
+}
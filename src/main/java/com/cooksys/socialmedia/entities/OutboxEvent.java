@@ -0,0 +1,50 @@
+package com.cooksys.socialmedia.entities;
+
+import com.cooksys.socialmedia.events.DomainEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.sql.Timestamp;
+
+/**
+ * A domain event written in the same transaction as the change it records, and delivered to the event handlers by
+ * {@link com.cooksys.socialmedia.outbox.OutboxRelay} after commit. {@code availableAt} is when the row may next be
+ * claimed: its creation, the end of a claim's lease, or a retry after a failed delivery.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DomainEventType type;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    private Long actorId;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private Timestamp created;
+
+    @Column(nullable = false)
+    private Timestamp availableAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private Timestamp processedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+}
@@ -4,21 +4,35 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.SQLInsert;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(
+        name = "Tweet.embeds",
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode(value = "inReplyTo", subgraph = "parent"),
+                @NamedAttributeNode(value = "repostOf", subgraph = "parent")
+        },
+        subgraphs = @NamedSubgraph(name = "parent", attributeNodes = @NamedAttributeNode("author"))
+)
 @NoArgsConstructor
 @Data
 public class Tweet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     private User author;
 
     @CreationTimestamp
@@ -31,16 +45,17 @@ public class Tweet {
     @OneToMany(mappedBy = "inReplyTo")
     private List<Tweet> replies;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Tweet inReplyTo;
 
     @OneToMany(mappedBy = "repostOf")
     private List<Tweet> reposts;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Tweet repostOf;
 
     @ManyToMany(cascade = CascadeType.MERGE)
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "tweet_hashtags",
             joinColumns = @JoinColumn(name = "tweet_id"),
@@ -51,7 +66,13 @@ public class Tweet {
     @ManyToMany(mappedBy = "likedTweets")
     private List<User> likedByUsers = new ArrayList<>();
 
+    // Each row also gets the tweet's posted time, which the mentions inbox pages by (see Mention)
     @ManyToMany
+    @OptimisticLock(excluded = true)
+    @SQLInsert(sql = "insert into user_mentions (tweet_id, user_id, posted)"
+            + " select m.tweet_id, m.user_id, t.posted"
+            + " from (values (cast(? as bigint), cast(? as bigint))) m (tweet_id, user_id)"
+            + " join tweet t on t.id = m.tweet_id")
     @JoinTable(
             name = "user_mentions",
             joinColumns = @JoinColumn(name = "tweet_id"),
@@ -3,7 +3,11 @@ package com.cooksys.socialmedia.entities;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
@@ -11,6 +15,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "user_table")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @Data
 public class User {
@@ -19,6 +24,9 @@ public class User {
     @GeneratedValue
     private Long id;
 
+    @Version
+    private Long version;
+
     @CreationTimestamp
     private Timestamp joined;
 
@@ -30,10 +38,13 @@ public class User {
     @Embedded
     private Profile profile;
 
+    // Only live tweets, so loading them goes through the partial author index
     @OneToMany(mappedBy = "author")
+    @SQLRestriction("deleted = false")
     private List<Tweet> tweets;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "user_likes",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -45,6 +56,7 @@ public class User {
     private List<Tweet> mentionedTweets = new ArrayList<>();
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
     @JoinTable(name = "followers_following")
     private List<User> followers;
 
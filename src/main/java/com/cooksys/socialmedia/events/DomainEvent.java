@@ -0,0 +1,10 @@
+package com.cooksys.socialmedia.events;
+
+import java.time.Instant;
+
+/**
+ * A committed change, as handed to each {@link com.cooksys.socialmedia.outbox.DomainEventHandler}. Delivery is at
+ * least once, so the id identifies redeliveries of the same event.
+ */
+public record DomainEvent(long id, DomainEventType type, long aggregateId, Long actorId, Instant created) {
+}
@@ -0,0 +1,27 @@
+package com.cooksys.socialmedia.events;
+
+/**
+ * What a {@link DomainEvent} records. The aggregate is the tweet for tweet events, the followed user for follow
+ * events and the user themselves for user events; the actor is the user who did it.
+ */
+public enum DomainEventType {
+
+    TWEET_CREATED,
+
+    TWEET_DELETED,
+
+    TWEET_LIKED,
+
+    USER_FOLLOWED,
+
+    USER_UNFOLLOWED,
+
+    USER_CREATED,
+
+    USER_UPDATED,
+
+    USER_DELETED,
+
+    USER_REACTIVATED
+
+}
@@ -0,0 +1,15 @@
+package com.cooksys.socialmedia.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a tweet is modified, including when it is soft-deleted.
+ */
+@AllArgsConstructor
+@Getter
+public class TweetChangedEvent {
+
+    private final Long tweetId;
+
+}
@@ -0,0 +1,15 @@
+package com.cooksys.socialmedia.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a user's profile, deleted flag or other rendered data changes.
+ */
+@AllArgsConstructor
+@Getter
+public class UserChangedEvent {
+
+    private final String username;
+
+}
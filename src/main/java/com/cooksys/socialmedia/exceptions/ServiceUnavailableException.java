@@ -0,0 +1,22 @@
+package com.cooksys.socialmedia.exceptions;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serial;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class ServiceUnavailableException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -2318406771093150254L;
+
+    private String message;
+
+    /** Whole seconds after which the request is worth retrying, sent as Retry-After. */
+    private long retryAfterSeconds;
+
+}
@@ -0,0 +1,22 @@
+package com.cooksys.socialmedia.exceptions;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serial;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class TooManyRequestsException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 3120844190534361517L;
+
+    private String message;
+
+    /** Whole seconds until the request would be allowed, sent as Retry-After. */
+    private long retryAfterSeconds;
+
+}
@@ -0,0 +1,51 @@
+package com.cooksys.socialmedia.generator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Fallback for databases without COPY: one prepared insert, executed every {@code batchSize} rows.
+ */
+final class BatchBulkWriter implements BulkWriter {
+
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long rows;
+
+    BatchBulkWriter(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        this.statement = connection.prepareStatement(
+                "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        rows++;
+        if (++pending == batchSize) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public long finish() throws SQLException {
+        if (pending > 0) {
+            statement.executeBatch();
+            pending = 0;
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.cooksys.socialmedia.generator;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one table. On Postgres rows go through {@code COPY ... FROM STDIN}; anywhere else they are
+ * sent as batched inserts.
+ */
+interface BulkWriter extends AutoCloseable {
+
+    void row(Object... values) throws SQLException;
+
+    /** Flushes whatever is buffered and returns the number of rows written. */
+    long finish() throws SQLException;
+
+    /** Abandons the rows of a writer that was never finished; a no-op after {@link #finish()}. */
+    @Override
+    void close() throws SQLException;
+
+    static BulkWriter open(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new CopyBulkWriter(connection.unwrap(PGConnection.class).getCopyAPI(), batchSize, table, columns);
+        }
+        return new BatchBulkWriter(connection, batchSize, table, columns);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cooksys.socialmedia.generator;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Writes rows in Postgres' text COPY format, handing the server a buffer of rows at a time.
+ */
+final class CopyBulkWriter implements BulkWriter {
+
+    private static final int ROW_BYTES = 128;
+
+    private final CopyIn copy;
+    private final int bufferBytes;
+    private final StringBuilder buffer;
+    private long rows;
+
+    CopyBulkWriter(CopyManager copyManager, int batchSize, String table, String... columns) throws SQLException {
+        this.copy = copyManager.copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN");
+        this.bufferBytes = batchSize * ROW_BYTES;
+        this.buffer = new StringBuilder(bufferBytes + ROW_BYTES);
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        buffer.append('\n');
+        rows++;
+        if (buffer.length() >= bufferBytes) {
+            flush();
+        }
+    }
+
+    @Override
+    public long finish() throws SQLException {
+        flush();
+        copy.endCopy();
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copy.isActive()) {
+            copy.cancelCopy();
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            buffer.append("\\N");
+        } else if (value instanceof String string) {
+            for (int i = 0; i < string.length(); i++) {
+                char c = string.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,384 @@
+package com.cooksys.socialmedia.generator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with production-sized data for benchmarking and capacity planning. Who tweets, who gets
+ * followed, mentioned and liked, which tweets get replies and reposts and which hashtags get used all follow Zipf
+ * distributions, so a few accounts, tweets and tags draw most of the traffic as they do in production.
+ * <p>
+ * Every tweet is derived from the seed and its id alone, which lets the tweets and each of their join tables be
+ * streamed in separate passes without holding anything in memory. Rows are written with {@code COPY} on Postgres
+ * and batched inserts elsewhere, with explicit ids; the sequences are moved past them at the end.
+ */
+@Component
+@ConditionalOnProperty(name = "socialmedia.generator.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class DataGenerator implements CommandLineRunner {
+
+    /** Matches the allocationSize of the entity id generators. */
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    /** Largest prime below 2^31; multiplying ranks by it shuffles popularity across ids. */
+    private static final long PERMUTATION_PRIME = 2_147_483_629L;
+
+    private static final int MAX_HASHTAGS_PER_TWEET = 4;
+    private static final int MAX_MENTIONS_PER_TWEET = 3;
+
+    private static final long USER_STREAM = 1;
+    private static final long TWEET_STREAM = 2;
+    private static final long FOLLOW_STREAM = 3;
+    private static final long LIKE_STREAM = 4;
+
+    private static final String[] FIRST_NAMES = {"Ada", "Alan", "Barbara", "Claude", "Dennis", "Donald", "Edsger",
+            "Frances", "Grace", "Guido", "James", "John", "Ken", "Linus", "Margaret", "Niklaus", "Radia", "Tony"};
+    private static final String[] LAST_NAMES = {"Allen", "Backus", "Dijkstra", "Gosling", "Hamilton", "Hoare",
+            "Hopper", "Knuth", "Liskov", "Lovelace", "McCarthy", "Perlman", "Ritchie", "Shannon", "Thompson", "Wirth"};
+    private static final String[] WORDS = {"the", "a", "just", "shipped", "new", "build", "today", "why", "does",
+            "anyone", "still", "use", "this", "love", "hate", "coffee", "deploy", "friday", "bug", "fixed", "broke",
+            "prod", "again", "great", "talk", "about", "latency", "cache", "query", "index", "slow", "fast", "finally",
+            "working", "on", "my", "team", "release", "notes", "read", "thread", "hot", "take", "is", "not", "so"};
+
+    private final DataSource dataSource;
+
+    @Value("${socialmedia.generator.users:100000}")
+    private int users;
+
+    @Value("${socialmedia.generator.tweets:1000000}")
+    private int tweets;
+
+    @Value("${socialmedia.generator.hashtags:20000}")
+    private int hashtags;
+
+    @Value("${socialmedia.generator.reply-ratio:0.25}")
+    private double replyRatio;
+
+    @Value("${socialmedia.generator.repost-ratio:0.1}")
+    private double repostRatio;
+
+    @Value("${socialmedia.generator.deleted-ratio:0.02}")
+    private double deletedRatio;
+
+    @Value("${socialmedia.generator.hashtags-per-tweet:0.6}")
+    private double hashtagsPerTweet;
+
+    @Value("${socialmedia.generator.mentions-per-tweet:0.3}")
+    private double mentionsPerTweet;
+
+    @Value("${socialmedia.generator.follows-per-user:40}")
+    private double followsPerUser;
+
+    @Value("${socialmedia.generator.likes-per-user:30}")
+    private double likesPerUser;
+
+    @Value("${socialmedia.generator.zipf-exponent:1.07}")
+    private double zipfExponent;
+
+    @Value("${socialmedia.generator.timeline:365d}")
+    private Duration timeline;
+
+    @Value("${socialmedia.generator.seed:42}")
+    private long seed;
+
+    @Value("${socialmedia.generator.batch-size:10000}")
+    private int batchSize;
+
+    private ZipfSampler userPopularity;
+    private ZipfSampler tweetPopularity;
+    private ZipfSampler hashtagPopularity;
+    private long timelineStart;
+    private long tweetSpacing;
+
+    @Override
+    public void run(String... args) throws SQLException {
+        if (users < 2 || tweets < 1 || hashtags < 1) {
+            throw new IllegalStateException("The generator needs at least 2 users, 1 tweet and 1 hashtag");
+        }
+        userPopularity = new ZipfSampler(users, zipfExponent);
+        tweetPopularity = new ZipfSampler(tweets, zipfExponent);
+        hashtagPopularity = new ZipfSampler(hashtags, zipfExponent);
+        long now = Instant.now().toEpochMilli();
+        timelineStart = now - timeline.toMillis();
+        tweetSpacing = Math.max(1, timeline.toMillis() / tweets);
+
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            requireEmpty(connection);
+
+            load(connection, "user_table", this::writeUsers,
+                    "id", "version", "joined", "deleted", "username", "password", "first_name", "last_name", "email");
+            long[][] hashtagUse = new long[2][hashtags];
+            load(connection, "tweet", writer -> writeTweets(writer, hashtagUse),
+                    "id", "version", "author_id", "posted", "deleted", "content", "in_reply_to_id", "repost_of_id");
+            load(connection, "hashtag", writer -> writeHashtags(writer, hashtagUse),
+                    "id", "label", "first_used", "last_used");
+            load(connection, "tweet_hashtags", this::writeTweetHashtags, "tweet_id", "hashtag_id");
+            load(connection, "user_mentions", this::writeMentions, "tweet_id", "user_id", "posted");
+            load(connection, "mention_inbox", writer -> writeMentionInboxes(writer, now),
+                    "user_id", "unread_count", "read_through");
+            load(connection, "followers_following", this::writeFollows, "following_id", "followers_id");
+            load(connection, "user_likes", this::writeLikes, "user_id", "tweet_id");
+
+            restartSequences(connection);
+            connection.commit();
+        }
+        log.info("Generated {} users, {} tweets and {} hashtags in {}s", users, tweets, hashtags,
+                Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private void writeUsers(BulkWriter writer) throws SQLException {
+        Timestamp joined = new Timestamp(timelineStart);
+        for (long id = 1; id <= users; id++) {
+            SplittableRandom random = random(USER_STREAM, id);
+            writer.row(id, 0L, joined, false, username(id), "password",
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    username(id) + "@example.com");
+        }
+    }
+
+    private void writeTweets(BulkWriter writer, long[][] hashtagUse) throws SQLException {
+        long[] firstUsed = hashtagUse[0];
+        long[] lastUsed = hashtagUse[1];
+        for (long id = 1; id <= tweets; id++) {
+            GeneratedTweet tweet = tweet(id);
+            writer.row(id, 0L, tweet.authorId, new Timestamp(tweet.posted), tweet.deleted, tweet.content,
+                    tweet.inReplyToId, tweet.repostOfId);
+            for (long hashtagId : tweet.hashtagIds) {
+                int index = (int) hashtagId - 1;
+                if (firstUsed[index] == 0) {
+                    firstUsed[index] = tweet.posted;
+                }
+                lastUsed[index] = tweet.posted;
+            }
+        }
+    }
+
+    private void writeHashtags(BulkWriter writer, long[][] hashtagUse) throws SQLException {
+        for (int index = 0; index < hashtags; index++) {
+            // Tags no tweet picked still need plausible timestamps
+            long first = hashtagUse[0][index] == 0 ? timelineStart : hashtagUse[0][index];
+            long last = hashtagUse[1][index] == 0 ? timelineStart : hashtagUse[1][index];
+            writer.row((long) index + 1, label(index + 1), new Timestamp(first), new Timestamp(last));
+        }
+    }
+
+    private void writeTweetHashtags(BulkWriter writer) throws SQLException {
+        for (long id = 1; id <= tweets; id++) {
+            for (long hashtagId : tweet(id).hashtagIds) {
+                writer.row(id, hashtagId);
+            }
+        }
+    }
+
+    private void writeMentions(BulkWriter writer) throws SQLException {
+        for (long id = 1; id <= tweets; id++) {
+            GeneratedTweet tweet = tweet(id);
+            for (long userId : tweet.mentionIds) {
+                writer.row(id, userId, new Timestamp(tweet.posted));
+            }
+        }
+    }
+
+    // Every user starts having read their mentions up to the end of the timeline
+    private void writeMentionInboxes(BulkWriter writer, long now) throws SQLException {
+        Timestamp readThrough = new Timestamp(now);
+        for (long id = 1; id <= users; id++) {
+            writer.row(id, 0, readThrough);
+        }
+    }
+
+    private void writeFollows(BulkWriter writer) throws SQLException {
+        Set<Long> followed = new HashSet<>();
+        for (long follower = 1; follower <= users; follower++) {
+            SplittableRandom random = random(FOLLOW_STREAM, follower);
+            int count = powerLawCount(random, followsPerUser, users - 1);
+            followed.clear();
+            // Celebrities saturate quickly, so give up on a heavy follower rather than spin
+            for (int attempt = 0; followed.size() < count && attempt < count * 4; attempt++) {
+                long followee = popularUser(random);
+                if (followee != follower && followed.add(followee)) {
+                    writer.row(followee, follower);
+                }
+            }
+        }
+    }
+
+    private void writeLikes(BulkWriter writer) throws SQLException {
+        Set<Long> liked = new HashSet<>();
+        for (long user = 1; user <= users; user++) {
+            SplittableRandom random = random(LIKE_STREAM, user);
+            int count = powerLawCount(random, likesPerUser, tweets);
+            liked.clear();
+            for (int attempt = 0; liked.size() < count && attempt < count * 4; attempt++) {
+                long tweet = permute(tweetPopularity.sample(random), tweets);
+                if (liked.add(tweet)) {
+                    writer.row(user, tweet);
+                }
+            }
+        }
+    }
+
+    private GeneratedTweet tweet(long id) {
+        SplittableRandom random = random(TWEET_STREAM, id);
+        GeneratedTweet tweet = new GeneratedTweet();
+        tweet.authorId = popularUser(random);
+        tweet.posted = timelineStart + (id - 1) * tweetSpacing + random.nextLong(tweetSpacing);
+        tweet.deleted = random.nextDouble() < deletedRatio;
+
+        double kind = random.nextDouble();
+        if (id > 1 && kind < repostRatio) {
+            tweet.repostOfId = parent(random, id);
+            tweet.hashtagIds = new long[0];
+            tweet.mentionIds = new long[0];
+            return tweet;
+        }
+        if (id > 1 && kind < repostRatio + replyRatio) {
+            tweet.inReplyToId = parent(random, id);
+        }
+        tweet.hashtagIds = distinct(random, hashtagsPerTweet, MAX_HASHTAGS_PER_TWEET, hashtagPopularity, hashtags);
+        tweet.mentionIds = distinct(random, mentionsPerTweet, MAX_MENTIONS_PER_TWEET, userPopularity, users);
+
+        StringBuilder content = new StringBuilder();
+        int words = 3 + random.nextInt(10);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                content.append(' ');
+            }
+            content.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        for (long hashtagId : tweet.hashtagIds) {
+            content.append(" #").append(label(hashtagId));
+        }
+        for (long userId : tweet.mentionIds) {
+            content.append(" @").append(username(userId));
+        }
+        tweet.content = content.toString();
+        return tweet;
+    }
+
+    /**
+     * Popular tweets collect most replies and reposts. A parent must precede its child, so when the popular pick
+     * is newer the tweet responds to something recent instead.
+     */
+    private long parent(SplittableRandom random, long id) {
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long candidate = permute(tweetPopularity.sample(random), tweets);
+            if (candidate < id) {
+                return candidate;
+            }
+        }
+        return id - 1 - random.nextLong(Math.min(id - 1, 1000));
+    }
+
+    private long[] distinct(SplittableRandom random, double mean, int max, ZipfSampler popularity, int size) {
+        // Geometric count with the requested mean
+        double more = mean / (1 + mean);
+        long[] ids = new long[max];
+        int count = 0;
+        while (count < max && random.nextDouble() < more) {
+            long id = permute(popularity.sample(random), size);
+            boolean seen = false;
+            for (int i = 0; i < count; i++) {
+                seen |= ids[i] == id;
+            }
+            if (!seen) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private long popularUser(SplittableRandom random) {
+        return permute(userPopularity.sample(random), users);
+    }
+
+    /** Pareto with shape 2 and the given mean: most users do little, a few do a lot. */
+    private static int powerLawCount(SplittableRandom random, double mean, int max) {
+        double scale = mean / 2;
+        double count = scale / Math.sqrt(1 - random.nextDouble());
+        return (int) Math.min(max, Math.round(count));
+    }
+
+    /** Maps popularity rank 1..size onto an id 1..size so the most popular rows are spread over the table. */
+    private static long permute(long rank, long size) {
+        return (rank - 1) * PERMUTATION_PRIME % size + 1;
+    }
+
+    private SplittableRandom random(long stream, long id) {
+        return new SplittableRandom(seed ^ stream * 0x9E3779B97F4A7C15L ^ id * 0xBF58476D1CE4E5B9L);
+    }
+
+    private static String username(long id) {
+        return "user" + id;
+    }
+
+    private static String label(long id) {
+        return WORDS[(int) (id % WORDS.length)] + id;
+    }
+
+    private void requireEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM user_table")) {
+            rows.next();
+            if (rows.getLong(1) > 0) {
+                throw new IllegalStateException("The generator only loads into an empty database");
+            }
+        }
+    }
+
+    private void load(Connection connection, String table, Rows rows, String... columns) throws SQLException {
+        long started = System.nanoTime();
+        long written;
+        try (BulkWriter writer = BulkWriter.open(connection, batchSize, table, columns)) {
+            rows.write(writer);
+            written = writer.finish();
+        }
+        connection.commit();
+        long millis = Math.max(1, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        log.info("Loaded {} rows into {} in {} ms ({} rows/s)", written, table, millis, written * 1000 / millis);
+    }
+
+    private void restartSequences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE user_table_seq RESTART WITH " + (users + SEQUENCE_INCREMENT + 1));
+            statement.execute("ALTER SEQUENCE hashtag_seq RESTART WITH " + (hashtags + SEQUENCE_INCREMENT + 1));
+            statement.execute("ALTER SEQUENCE tweet_seq RESTART WITH " + (tweets + SEQUENCE_INCREMENT + 1));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Rows {
+        void write(BulkWriter writer) throws SQLException;
+    }
+
+    private static final class GeneratedTweet {
+        long authorId;
+        long posted;
+        boolean deleted;
+        String content;
+        Long inReplyToId;
+        Long repostOfId;
+        long[] hashtagIds;
+        long[] mentionIds;
+    }
+}
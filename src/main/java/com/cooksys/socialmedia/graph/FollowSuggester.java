@@ -0,0 +1,229 @@
+package com.cooksys.socialmedia.graph;
+
+import com.cooksys.socialmedia.exceptions.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.cooksys.socialmedia.exceptions.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ranks "who to follow" candidates from the {@link SocialGraph}: everyone followed by the people a user follows,
+ * ordered by how many of those people follow them, then by id. The user and the accounts they already follow are
+ * left out; whether a candidate is deleted is for the caller to check.
+ * <p>
+ * For a user following thousands of accounts the friends-of-friends lists run to hundreds of thousands of ids, so
+ * they are gathered, sorted and counted on a fork-join pool in slices of {@value #SLICE} followees, and the slices'
+ * sorted (id, count) runs are merged on the way back up. The top {@code candidates} of each ranking are cached per
+ * user for the {@code ttl}. Nothing is ranked until the graph has loaded, since a ranking of the partial graph
+ * would be cached as if it were the real one.
+ */
+@Component
+public class FollowSuggester {
+
+    static final int SLICE = 64;
+
+    private static final long[] NONE = new long[0];
+    private static final long LOADING_RETRY_AFTER_SECONDS = 5;
+
+    private final SocialGraph socialGraph;
+    private final ForkJoinPool pool;
+    private final int candidates;
+    private final Cache<Long, long[]> rankings;
+    private final Timer rankTimer;
+
+    public FollowSuggester(SocialGraph socialGraph, MeterRegistry meterRegistry,
+                           @Value("${socialmedia.suggestions.parallelism:0}") int parallelism,
+                           @Value("${socialmedia.suggestions.candidates:100}") int candidates,
+                           @Value("${socialmedia.suggestions.ttl:10m}") Duration ttl,
+                           @Value("${socialmedia.suggestions.max-cached-users:100000}") long maxCachedUsers) {
+        this.socialGraph = socialGraph;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.candidates = candidates;
+        this.rankings = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxCachedUsers)
+                .build();
+        this.rankTimer = Timer.builder("socialmedia.suggestions.rank")
+                .description("Time to rank follow suggestions for a user whose ranking wasn't cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The user's best candidates, best first, at most {@code candidates} of them. The array is shared with the
+     * cache, so it must not be changed.
+     *
+     * @throws ServiceUnavailableException if the graph is still loading
+     */
+    public long[] suggestions(long userId) {
+        if (!socialGraph.isLoaded()) {
+            throw new ServiceUnavailableException("Follow suggestions are not available until the social graph has loaded.",
+                    LOADING_RETRY_AFTER_SECONDS);
+        }
+        return rankings.get(userId, id -> rankTimer.record(() -> rank(socialGraph.current(), id, candidates, pool)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    static long[] rank(SocialGraph.State graph, long userId, int max, ForkJoinPool pool) {
+        long[] followees = graph.following(userId);
+        if (followees.length == 0) {
+            return NONE;
+        }
+        Gather all = new Gather(graph, userId, followees, 0, followees.length);
+        Counts counts = followees.length <= SLICE ? all.compute() : pool.invoke(all);
+        return counts.top(max);
+    }
+
+    /**
+     * Counts the followees of {@code followees[from..to)}, splitting the range in halves until it is one slice.
+     */
+    private static final class Gather extends RecursiveTask<Counts> {
+
+        private final SocialGraph.State graph;
+        private final long userId;
+        private final long[] followees;
+        private final int from;
+        private final int to;
+
+        Gather(SocialGraph.State graph, long userId, long[] followees, int from, int to) {
+            this.graph = graph;
+            this.userId = userId;
+            this.followees = followees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from <= SLICE) {
+                return gather();
+            }
+            int middle = (from + to) >>> 1;
+            Gather left = new Gather(graph, userId, followees, from, middle);
+            left.fork();
+            Counts right = new Gather(graph, userId, followees, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Counts gather() {
+            long[] ids = new long[64];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                long[] theirs = graph.following(followees[i]);
+                if (ids.length - size < theirs.length) {
+                    ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + theirs.length));
+                }
+                System.arraycopy(theirs, 0, ids, size, theirs.length);
+                size += theirs.length;
+            }
+            Arrays.sort(ids, 0, size);
+
+            Counts counts = new Counts(size);
+            for (int i = 0; i < size; ) {
+                long id = ids[i];
+                int run = i;
+                while (i < size && ids[i] == id) {
+                    i++;
+                }
+                if (id != userId && Arrays.binarySearch(followees, id) < 0) {
+                    counts.add(id, i - run);
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Candidate ids in ascending order, each with how many of the slice's followees follow them.
+     */
+    static final class Counts {
+
+        private final long[] ids;
+        private final int[] counts;
+        private int size;
+
+        Counts(int capacity) {
+            this.ids = new long[capacity];
+            this.counts = new int[capacity];
+        }
+
+        void add(long id, int count) {
+            ids[size] = id;
+            counts[size] = count;
+            size++;
+        }
+
+        Counts merge(Counts other) {
+            Counts merged = new Counts(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    merged.add(ids[i], counts[i++]);
+                } else if (ids[i] > other.ids[j]) {
+                    merged.add(other.ids[j], other.counts[j++]);
+                } else {
+                    merged.add(ids[i], counts[i++] + other.counts[j++]);
+                }
+            }
+            while (i < size) {
+                merged.add(ids[i], counts[i++]);
+            }
+            while (j < other.size) {
+                merged.add(other.ids[j], other.counts[j++]);
+            }
+            return merged;
+        }
+
+        /**
+         * The ids with the highest counts, highest first and lowest id first among equals. A histogram of the
+         * counts finds the cut-off, so nothing bigger than the result is ever sorted.
+         */
+        long[] top(int max) {
+            int highest = 0;
+            for (int i = 0; i < size; i++) {
+                highest = Math.max(highest, counts[i]);
+            }
+            int[] withCount = new int[highest + 1];
+            for (int i = 0; i < size; i++) {
+                withCount[counts[i]]++;
+            }
+            int cutoff = highest;
+            int above = 0;
+            while (cutoff > 0 && above + withCount[cutoff] < max) {
+                above += withCount[cutoff];
+                cutoff--;
+            }
+
+            // Everyone above the cut-off makes it; ids are ascending, so placing each after the ones with a higher
+            // count keeps equal counts in id order
+            long[] top = new long[Math.min(max, size)];
+            int[] start = new int[highest + 2];
+            for (int count = highest; count > cutoff; count--) {
+                start[count - 1] = start[count] + withCount[count];
+            }
+            int filled = above;
+            for (int i = 0; i < size; i++) {
+                int count = counts[i];
+                if (count > cutoff) {
+                    top[start[count]++] = ids[i];
+                } else if (count == cutoff && filled < top.length) {
+                    top[filled++] = ids[i];
+                }
+            }
+            return top;
+        }
+    }
+}
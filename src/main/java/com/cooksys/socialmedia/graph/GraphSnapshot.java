@@ -0,0 +1,188 @@
+package com.cooksys.socialmedia.graph;
+
+import java.util.Arrays;
+
+/**
+ * An immutable follow graph in compressed sparse row form. Users are numbered by their position in the sorted
+ * {@code ids} array, so node order is id order. Each direction is an offsets array and a targets array: the nodes a
+ * node points at are {@code targets[offsets[node]]} up to {@code targets[offsets[node + 1]]}, sorted and without
+ * duplicates. That is about 8 bytes per edge and 16 per user, against the hundreds a pair of managed {@code User}
+ * collections costs.
+ * <p>
+ * Users without any follow edge have no node; they simply have no neighbours.
+ */
+final class GraphSnapshot {
+
+    static final GraphSnapshot EMPTY = new Builder().build();
+
+    private static final long[] NONE = new long[0];
+
+    private final long[] ids;
+    private final Adjacency following;
+    private final Adjacency followers;
+
+    private GraphSnapshot(long[] ids, Adjacency following, Adjacency followers) {
+        this.ids = ids;
+        this.following = following;
+        this.followers = followers;
+    }
+
+    int nodes() {
+        return ids.length;
+    }
+
+    long edges() {
+        return following.targets.length;
+    }
+
+    /**
+     * The node of the user, or a negative number if they have no edges.
+     */
+    int node(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    long id(int node) {
+        return ids[node];
+    }
+
+    boolean follows(long followerId, long followeeId) {
+        int follower = node(followerId);
+        int followee = node(followeeId);
+        return follower >= 0 && followee >= 0 && following.contains(follower, followee);
+    }
+
+    int followingCount(long id) {
+        int node = node(id);
+        return node < 0 ? 0 : following.degree(node);
+    }
+
+    int followerCount(long id) {
+        int node = node(id);
+        return node < 0 ? 0 : followers.degree(node);
+    }
+
+    long[] following(long id) {
+        return neighbours(following, id);
+    }
+
+    long[] followers(long id) {
+        return neighbours(followers, id);
+    }
+
+    /**
+     * The arrays' own size, leaving out object headers.
+     */
+    long bytes() {
+        return 8L * ids.length + following.bytes() + followers.bytes();
+    }
+
+    private long[] neighbours(Adjacency adjacency, long id) {
+        int node = node(id);
+        if (node < 0) {
+            return NONE;
+        }
+        int from = adjacency.offsets[node];
+        long[] neighbours = new long[adjacency.offsets[node + 1] - from];
+        for (int i = 0; i < neighbours.length; i++) {
+            neighbours[i] = ids[adjacency.targets[from + i]];
+        }
+        return neighbours;
+    }
+
+    private record Adjacency(int[] offsets, int[] targets) {
+
+        /**
+         * Buckets the edges by source with a counting sort, then sorts and de-duplicates each bucket in place.
+         */
+        static Adjacency of(int nodes, int[] sources, int[] targets, int edges) {
+            int[] offsets = new int[nodes + 1];
+            for (int i = 0; i < edges; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int node = 0; node < nodes; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            int[] next = Arrays.copyOf(offsets, nodes);
+            int[] sorted = new int[edges];
+            for (int i = 0; i < edges; i++) {
+                sorted[next[sources[i]]++] = targets[i];
+            }
+            int written = 0;
+            for (int node = 0; node < nodes; node++) {
+                int from = offsets[node];
+                int to = offsets[node + 1];
+                Arrays.sort(sorted, from, to);
+                offsets[node] = written;
+                for (int i = from; i < to; i++) {
+                    if (i == from || sorted[i] != sorted[i - 1]) {
+                        sorted[written++] = sorted[i];
+                    }
+                }
+            }
+            offsets[nodes] = written;
+            return new Adjacency(offsets, written == edges ? sorted : Arrays.copyOf(sorted, written));
+        }
+
+        int degree(int node) {
+            return offsets[node + 1] - offsets[node];
+        }
+
+        boolean contains(int node, int target) {
+            return Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target) >= 0;
+        }
+
+        long bytes() {
+            return 4L * offsets.length + 4L * targets.length;
+        }
+    }
+
+    /**
+     * Collects (follower, followee) id pairs in two growing primitive arrays. Duplicate pairs are fine.
+     */
+    static final class Builder {
+
+        private long[] followerIds = new long[1024];
+        private long[] followeeIds = new long[1024];
+        private int size;
+
+        void add(long followerId, long followeeId) {
+            if (size == followerIds.length) {
+                followerIds = Arrays.copyOf(followerIds, size * 2);
+                followeeIds = Arrays.copyOf(followeeIds, size * 2);
+            }
+            followerIds[size] = followerId;
+            followeeIds[size] = followeeId;
+            size++;
+        }
+
+        void addAll(long followerId, long[] followeeIds) {
+            for (long followeeId : followeeIds) {
+                add(followerId, followeeId);
+            }
+        }
+
+        GraphSnapshot build() {
+            long[] ids = Arrays.copyOf(followerIds, size * 2);
+            System.arraycopy(followeeIds, 0, ids, size, size);
+            Arrays.sort(ids);
+            int distinct = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            ids = Arrays.copyOf(ids, distinct);
+
+            int[] followers = new int[size];
+            int[] followees = new int[size];
+            for (int i = 0; i < size; i++) {
+                followers[i] = Arrays.binarySearch(ids, followerIds[i]);
+                followees[i] = Arrays.binarySearch(ids, followeeIds[i]);
+            }
+            return new GraphSnapshot(ids,
+                    Adjacency.of(distinct, followers, followees, size),
+                    Adjacency.of(distinct, followees, followers, size));
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.cooksys.socialmedia.graph;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who follows whom, held in memory as primitive arrays so follow checks, follower and following counts and
+ * neighbour lists never touch the database or load a {@code User}.
+ * <p>
+ * The bulk of the graph is an immutable {@link GraphSnapshot} loaded from {@code followers_following} once the
+ * application is ready. Committed follows and unfollows on this instance are layered on top as per-user
+ * replacement lists, which a scheduled compaction folds into a fresh snapshot once there are more than
+ * {@code compact-after} of them. Readers never lock: they read whatever state is published at the time.
+ * <p>
+ * The graph is per instance and only sees writes made through this instance, so it can trail changes made
+ * elsewhere until the next restart. The database stays authoritative for anything that must be exact, such as
+ * rejecting a second follow. It isn't fed from the outbox: the relay hands each event to one instance only, and
+ * the writer's own graph should reflect a follow as soon as it commits.
+ */
+@Component
+@Slf4j
+public class SocialGraph {
+
+    private static final String EDGES = "SELECT followers_id, following_id FROM followers_following";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private final List<Change> pending = new ArrayList<>();
+    private volatile State state = new State(GraphSnapshot.EMPTY);
+    private volatile boolean loaded;
+
+    @Value("${socialmedia.graph.compact-after:10000}")
+    private int compactAfter;
+
+    @Value("${socialmedia.graph.load-fetch-size:10000}")
+    private int loadFetchSize;
+
+    public SocialGraph(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("socialmedia.graph.edges", this, graph -> graph.state.base.edges())
+                .description("Follow edges in the compacted social graph")
+                .register(meterRegistry);
+        Gauge.builder("socialmedia.graph.overrides", this, graph -> graph.state.overrides())
+                .description("Users whose follow lists changed since the social graph was last compacted")
+                .register(meterRegistry);
+        Gauge.builder("socialmedia.graph.bytes", this, graph -> graph.state.bytes())
+                .description("Approximate heap held by the social graph's arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reads every edge in one streamed query. Changes committed while it runs are queued and replayed on top;
+     * replaying one the query already saw is harmless.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            synchronized (writeLock) {
+                loaded = false;
+            }
+            GraphSnapshot.Builder edges = new GraphSnapshot.Builder();
+            // Not read-only, so the load runs on the primary and can't miss a follow the replica hasn't applied yet
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EDGES);
+                statement.setFetchSize(loadFetchSize);
+                return statement;
+            }, (RowCallbackHandler) row -> edges.add(row.getLong(1), row.getLong(2))));
+            GraphSnapshot snapshot = edges.build();
+            synchronized (writeLock) {
+                state = new State(snapshot);
+                loaded = true;
+                pending.forEach(this::apply);
+                pending.clear();
+            }
+            log.info("Loaded social graph of {} users and {} follows ({} bytes) in {} ms", snapshot.nodes(),
+                    snapshot.edges(), snapshot.bytes(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Whether the graph holds every follow yet. Until the load finishes it only holds follows committed since
+     * startup, so answers that depend on the whole graph shouldn't be given, let alone cached.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Records that the follower follows the followee once the current transaction commits.
+     */
+    public void recordFollow(long followerId, long followeeId) {
+        applyAfterCommit(new Change(followerId, followeeId, true));
+    }
+
+    /**
+     * Records that the follower no longer follows the followee once the current transaction commits.
+     */
+    public void recordUnfollow(long followerId, long followeeId) {
+        applyAfterCommit(new Change(followerId, followeeId, false));
+    }
+
+    public boolean isFollowing(long followerId, long followeeId) {
+        return state.isFollowing(followerId, followeeId);
+    }
+
+    public int followingCount(long userId) {
+        return state.followingCount(userId);
+    }
+
+    public int followerCount(long userId) {
+        return state.followerCount(userId);
+    }
+
+    /**
+     * The ids of the users this user follows, in ascending order.
+     */
+    public long[] following(long userId) {
+        return state.following(userId).clone();
+    }
+
+    /**
+     * The ids of the users following this user, in ascending order.
+     */
+    public long[] followers(long userId) {
+        return state.followers(userId).clone();
+    }
+
+    /**
+     * The graph as it is now, for traversals that must see one consistent state throughout.
+     */
+    State current() {
+        return state;
+    }
+
+    @Scheduled(fixedDelayString = "${socialmedia.graph.compact-interval:PT1M}")
+    public void compactIfNeeded() {
+        if (state.overrides() > compactAfter) {
+            compact();
+        }
+    }
+
+    /**
+     * Folds the changed users' lists into a new snapshot. Writers carry on against a copy of the overrides while it
+     * is built; afterwards only the lists they changed meanwhile stay as overrides.
+     */
+    public void compact() {
+        synchronized (rebuildLock) {
+            State frozen;
+            synchronized (writeLock) {
+                if (!loaded) {
+                    return;
+                }
+                frozen = state;
+                state = frozen.copy();
+            }
+
+            GraphSnapshot.Builder edges = new GraphSnapshot.Builder();
+            GraphSnapshot base = frozen.base;
+            for (int node = 0; node < base.nodes(); node++) {
+                long id = base.id(node);
+                if (!frozen.following.containsKey(id)) {
+                    edges.addAll(id, base.following(id));
+                }
+            }
+            frozen.following.forEach(edges::addAll);
+            GraphSnapshot snapshot = edges.build();
+
+            synchronized (writeLock) {
+                State compacted = new State(snapshot);
+                state.following.forEach((id, list) -> {
+                    if (frozen.following.get(id) != list) {
+                        compacted.following.put(id, list);
+                    }
+                });
+                state.followers.forEach((id, list) -> {
+                    if (frozen.followers.get(id) != list) {
+                        compacted.followers.put(id, list);
+                    }
+                });
+                state = compacted;
+            }
+        }
+    }
+
+    private void applyAfterCommit(Change change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Change change) {
+        synchronized (writeLock) {
+            if (!loaded) {
+                pending.add(change);
+                return;
+            }
+            State current = state;
+            long[] following = current.following(change.followerId());
+            long[] updatedFollowing = change.follow()
+                    ? with(following, change.followeeId())
+                    : without(following, change.followeeId());
+            if (updatedFollowing != following) {
+                current.following.put(change.followerId(), updatedFollowing);
+            }
+
+            long[] followers = current.followers(change.followeeId());
+            long[] updatedFollowers = change.follow()
+                    ? with(followers, change.followerId())
+                    : without(followers, change.followerId());
+            if (updatedFollowers != followers) {
+                current.followers.put(change.followeeId(), updatedFollowers);
+            }
+        }
+    }
+
+    private static long[] with(long[] sorted, long id) {
+        int at = Arrays.binarySearch(sorted, id);
+        if (at >= 0) {
+            return sorted;
+        }
+        int insertAt = -at - 1;
+        long[] updated = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(sorted, insertAt, updated, insertAt + 1, sorted.length - insertAt);
+        return updated;
+    }
+
+    private static long[] without(long[] sorted, long id) {
+        int at = Arrays.binarySearch(sorted, id);
+        if (at < 0) {
+            return sorted;
+        }
+        long[] updated = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, updated, 0, at);
+        System.arraycopy(sorted, at + 1, updated, at, updated.length - at);
+        return updated;
+    }
+
+    private record Change(long followerId, long followeeId, boolean follow) {
+    }
+
+    /**
+     * A snapshot plus the complete, sorted follow lists of every user changed since it was built. Only the writer
+     * holding the lock puts into the maps, and never changes an array once it is in one.
+     */
+    record State(GraphSnapshot base, Map<Long, long[]> following, Map<Long, long[]> followers) {
+
+        State(GraphSnapshot base) {
+            this(base, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        boolean isFollowing(long followerId, long followeeId) {
+            long[] list = following.get(followerId);
+            return list != null ? Arrays.binarySearch(list, followeeId) >= 0 : base.follows(followerId, followeeId);
+        }
+
+        int followingCount(long id) {
+            long[] list = following.get(id);
+            return list != null ? list.length : base.followingCount(id);
+        }
+
+        /**
+         * The user's followees in ascending order; the array may be shared, so it must not be changed.
+         */
+        long[] following(long id) {
+            long[] list = following.get(id);
+            return list != null ? list : base.following(id);
+        }
+
+        int followerCount(long id) {
+            long[] list = followers.get(id);
+            return list != null ? list.length : base.followerCount(id);
+        }
+
+        /**
+         * The user's followers in ascending order; the array may be shared, so it must not be changed.
+         */
+        long[] followers(long id) {
+            long[] list = followers.get(id);
+            return list != null ? list : base.followers(id);
+        }
+
+        State copy() {
+            return new State(base, new ConcurrentHashMap<>(following), new ConcurrentHashMap<>(followers));
+        }
+
+        int overrides() {
+            return following.size() + followers.size();
+        }
+
+        long bytes() {
+            long bytes = base.bytes();
+            for (long[] list : following.values()) {
+                bytes += 8L * list.length;
+            }
+            for (long[] list : followers.values()) {
+                bytes += 8L * list.length;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.cooksys.socialmedia.hashtags;
+
+import com.cooksys.socialmedia.cache.ChangeCounters;
+import com.cooksys.socialmedia.entities.Hashtag;
+import com.cooksys.socialmedia.events.DomainEvent;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.outbox.DomainEventHandler;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes {@code Hashtag.lastUsed} behind the tweets that use the tags. The outbox delivers each committed tweet,
+ * which only raises its labels' entries in a map of label to latest use; every {@code flush-interval} the map is
+ * drained into one batched {@code UPDATE}, which never moves a timestamp backwards. Posting a tweet therefore never locks a hashtag row,
+ * however popular the tag, and {@code GET /tags} trails the latest uses by the relay's lag plus one interval.
+ * <p>
+ * The update bypasses Hibernate, so the second-level cache's hashtags are evicted after each flush, and the tags
+ * change counter is bumped for the list ETags.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HashtagLastUsedTracker implements DomainEventHandler {
+
+    private static final String LABELS = "SELECT h.label FROM hashtag h JOIN tweet_hashtags th ON th.hashtag_id = h.id WHERE th.tweet_id = ?";
+    private static final String UPDATE = "UPDATE hashtag SET last_used = ? WHERE label = ? AND (last_used IS NULL OR last_used < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ChangeCounters changeCounters;
+    private final ConcurrentHashMap<String, Long> pending = new ConcurrentHashMap<>();
+
+    @Value("${socialmedia.hashtags.last-used.flush-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Raises the last use of the tags of each created tweet to the time the tweet was written. A redelivered event
+     * merges the same time again, which changes nothing.
+     */
+    @Override
+    public void handle(DomainEvent event) {
+        if (event.type() != DomainEventType.TWEET_CREATED) {
+            return;
+        }
+        List<String> labels = jdbcTemplate.queryForList(LABELS, String.class, event.aggregateId());
+        merge(labels, event.created().toEpochMilli());
+    }
+
+    @Scheduled(fixedDelayString = "${socialmedia.hashtags.last-used.flush-interval:PT2S}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> updates = new ArrayList<>(pending.size());
+        for (String label : pending.keySet()) {
+            Long lastUsed = pending.remove(label);
+            if (lastUsed != null) {
+                Timestamp timestamp = new Timestamp(lastUsed);
+                updates.add(new Object[]{timestamp, label, timestamp});
+            }
+        }
+        boolean flushed = false;
+        for (int from = 0; from < updates.size(); from += batchSize) {
+            List<Object[]> batch = updates.subList(from, Math.min(from + batchSize, updates.size()));
+            try {
+                jdbcTemplate.batchUpdate(UPDATE, batch);
+                flushed = true;
+            } catch (DataAccessException e) {
+                // Put the batch back for the next flush; a newer use recorded meanwhile wins
+                for (Object[] update : batch) {
+                    pending.merge((String) update[1], ((Timestamp) update[0]).getTime(), Math::max);
+                }
+                log.warn("Could not flush the last use of {} hashtags", batch.size(), e);
+            }
+        }
+        entityManagerFactory.getCache().evict(Hashtag.class);
+        if (flushed) {
+            changeCounters.increment(ChangeCounters.TAGS);
+        }
+    }
+
+    private void merge(Collection<String> labels, long usedAt) {
+        for (String label : labels) {
+            pending.merge(label, usedAt, Math::max);
+        }
+    }
+}
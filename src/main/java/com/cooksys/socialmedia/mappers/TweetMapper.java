@@ -3,17 +3,78 @@ package com.cooksys.socialmedia.mappers;
 import com.cooksys.socialmedia.dtos.TweetResponseDto;
 import com.cooksys.socialmedia.entities.Tweet;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
 import java.util.List;
 
-//import org.mapstruct.Mapper;
-
 @Mapper(componentModel = "spring", uses = {UserMapper.class})
-public interface TweetMapper {
+public abstract class TweetMapper {
+
+    /**
+     * How many levels of inReplyTo/repostOf are rendered in full. Parents nested deeper than this are
+     * rendered as id-only references, so mapping never walks an entire reply or repost chain.
+     */
+    @Value("${socialmedia.tweets.embed-depth:1}")
+    private int embedDepth;
+
+    public TweetResponseDto entityToDto(Tweet entity) {
+        return entityToDto(entity, embedDepth);
+    }
+
+    public List<TweetResponseDto> entitiesToDtos(List<Tweet> entities) {
+        if (entities == null) {
+            return null;
+        }
+        List<TweetResponseDto> dtos = new ArrayList<>(entities.size());
+        for (Tweet entity : entities) {
+            dtos.add(entityToDto(entity));
+        }
+        return dtos;
+    }
+
+    /**
+     * Sum of the versions of every row that {@link #entityToDto(Tweet)} renders for this tweet. Versions only
+     * grow, so the sum changes whenever the mapped output could have changed.
+     */
+    public long renderedVersion(Tweet entity) {
+        return renderedVersion(entity, embedDepth);
+    }
+
+    public abstract Tweet dtoToEntity(TweetResponseDto tweet);
+
+    @Mapping(target = "inReplyTo", ignore = true)
+    @Mapping(target = "repostOf", ignore = true)
+    protected abstract TweetResponseDto shallowEntityToDto(Tweet entity);
 
-    TweetResponseDto entityToDto(Tweet entity);
+    private TweetResponseDto entityToDto(Tweet entity, int depth) {
+        if (entity == null) {
+            return null;
+        }
+        if (depth < 0) {
+            // Reading the id of a lazy parent does not initialize it
+            TweetResponseDto reference = new TweetResponseDto();
+            reference.setId(entity.getId());
+            return reference;
+        }
+        TweetResponseDto dto = shallowEntityToDto(entity);
+        dto.setInReplyTo(entityToDto(entity.getInReplyTo(), depth - 1));
+        dto.setRepostOf(entityToDto(entity.getRepostOf(), depth - 1));
+        return dto;
+    }
 
-    List<TweetResponseDto> entitiesToDtos(List<Tweet> entities);
+    private long renderedVersion(Tweet entity, int depth) {
+        if (entity == null || depth < 0) {
+            return 0;
+        }
+        return versionOf(entity.getVersion())
+                + (entity.getAuthor() == null ? 0 : versionOf(entity.getAuthor().getVersion()))
+                + renderedVersion(entity.getInReplyTo(), depth - 1)
+                + renderedVersion(entity.getRepostOf(), depth - 1);
+    }
 
-    Tweet dtoToEntity(TweetResponseDto tweet);
-}
\ No newline at end of file
+    private long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cooksys.socialmedia.metrics;
+
+import com.cooksys.socialmedia.events.DomainEvent;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.outbox.DomainEventHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counts committed tweets, deletions, likes, follows, unfollows and user changes as {@code socialmedia.domain.events},
+ * tagged by type. Counted from the outbox, so a redelivered event is counted again; the relay's own
+ * {@code socialmedia.outbox.deliveries} shows how often that happens.
+ */
+@Component
+public class DomainEventCounter implements DomainEventHandler {
+
+    private final Map<DomainEventType, Counter> counters = new EnumMap<>(DomainEventType.class);
+
+    public DomainEventCounter(MeterRegistry meterRegistry) {
+        for (DomainEventType type : DomainEventType.values()) {
+            counters.put(type, Counter.builder("socialmedia.domain.events")
+                    .description("Committed domain events, by type")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        counters.get(event.type()).increment();
+    }
+}
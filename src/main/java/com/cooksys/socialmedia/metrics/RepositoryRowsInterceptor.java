@@ -0,0 +1,59 @@
+package com.cooksys.socialmedia.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many rows each repository method returns as {@code socialmedia.repository.rows}, tagged
+ * by repository and method. Call counts and timings come from Boot's
+ * {@code spring.data.repository.invocations} timer.
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> rowsByMethod = new ConcurrentHashMap<>();
+
+    public RepositoryRowsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        rowsByMethod.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary.builder("socialmedia.repository.rows")
+                        .description("Rows returned per repository call")
+                        .tag("repository", repository)
+                        .tag("method", method.getName())
+                        .register(meterRegistry))
+                .record(rows(result));
+        return result;
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        // Single entities, projections, counts and exists checks are one row
+        return 1;
+    }
+}
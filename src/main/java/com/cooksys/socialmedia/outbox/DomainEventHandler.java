@@ -0,0 +1,17 @@
+package com.cooksys.socialmedia.outbox;
+
+import com.cooksys.socialmedia.events.DomainEvent;
+
+/**
+ * Follow-on work for committed changes, run by {@link OutboxRelay} on its worker threads rather than in the request.
+ * Every handler bean sees every event. Delivery is at least once: an event whose delivery failed, or whose worker
+ * died mid-delivery, is handed to every handler again, so handlers must tolerate seeing an event twice.
+ */
+public interface DomainEventHandler {
+
+    /**
+     * Throwing schedules the event for another delivery to all handlers after a backoff.
+     */
+    void handle(DomainEvent event);
+
+}
@@ -0,0 +1,13 @@
+package com.cooksys.socialmedia.outbox;
+
+/**
+ * Published alongside each outbox insert so the relay can wake up as soon as the transaction commits instead of
+ * at its next poll.
+ */
+public class OutboxEventWritten {
+
+    static final OutboxEventWritten INSTANCE = new OutboxEventWritten();
+
+    private OutboxEventWritten() {
+    }
+}
@@ -0,0 +1,35 @@
+package com.cooksys.socialmedia.outbox;
+
+import com.cooksys.socialmedia.entities.OutboxEvent;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.repositories.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+/**
+ * Records a domain event in the outbox as part of the caller's transaction, so the event exists exactly when the
+ * change does. The insert goes out with the transaction's flush; nothing else happens on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, Long aggregateId, Long actorId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setActorId(actorId);
+        event.setAvailableAt(new Timestamp(System.currentTimeMillis()));
+        outboxEventRepository.save(event);
+        eventPublisher.publishEvent(OutboxEventWritten.INSTANCE);
+    }
+}
@@ -0,0 +1,305 @@
+package com.cooksys.socialmedia.outbox;
+
+import com.cooksys.socialmedia.events.DomainEvent;
+import com.cooksys.socialmedia.events.DomainEventType;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox events to the {@link DomainEventHandler}s off the request path.
+ * <p>
+ * A poller thread claims pending events oldest first by pushing their {@code available_at} out by the lease, with
+ * a conditional update so that only one claimant wins a row, and hands them to a pool of single-threaded worker
+ * lanes. Events for the same aggregate always go to the same lane, so one poll delivers them in order. A delivered
+ * event is marked processed; a failed one becomes available again after an exponential backoff. An event that was
+ * claimed but never finished, because the process stopped or crashed, becomes available again once its lease runs
+ * out, so every event is delivered at least once.
+ * <p>
+ * The poller wakes when a transaction that wrote to the outbox commits, and otherwise every {@code poll-interval}.
+ * Delivered events are purged after {@code retention}.
+ * <p>
+ * With {@code enabled} off the relay doesn't start, and events wait until {@link #drain()} delivers them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final String CLAIMABLE = "SELECT id, type, aggregate_id, actor_id, created, attempts FROM outbox_event"
+            + " WHERE processed_at IS NULL AND available_at <= ? ORDER BY id LIMIT ?";
+    private static final String CLAIM = "UPDATE outbox_event SET available_at = ?, attempts = attempts + 1"
+            + " WHERE id = ? AND processed_at IS NULL AND available_at <= ?";
+    private static final String DELIVERED = "UPDATE outbox_event SET processed_at = ?, last_error = NULL WHERE id = ?";
+    private static final String PARKED = "UPDATE outbox_event SET available_at = ?, attempts = attempts + 1, last_error = ?"
+            + " WHERE id = ? AND processed_at IS NULL AND available_at <= ?";
+    private static final String FAILED = "UPDATE outbox_event SET available_at = ?, last_error = ? WHERE id = ?";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<DomainEventHandler> handlers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${socialmedia.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${socialmedia.outbox.relay.workers:4}")
+    private int workers;
+
+    @Value("${socialmedia.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${socialmedia.outbox.relay.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${socialmedia.outbox.relay.lease:5m}")
+    private Duration lease;
+
+    @Value("${socialmedia.outbox.relay.retry-backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${socialmedia.outbox.relay.max-retry-backoff:10m}")
+    private Duration maxRetryBackoff;
+
+    @Value("${socialmedia.outbox.retention:7d}")
+    private Duration retention;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private Semaphore room;
+    private ExecutorService[] lanes;
+    private Thread poller;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        room = new Semaphore(batchSize);
+        lanes = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("outbox-worker-" + i).daemon().factory());
+        }
+        running = true;
+        poller = Thread.ofPlatform().name("outbox-relay").daemon().start(this::poll);
+    }
+
+    /**
+     * Events still queued on a lane keep their lease and are delivered again once it runs out.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        poller.interrupt();
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+        try {
+            poller.join(TimeUnit.SECONDS.toMillis(10));
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxEventWritten(OutboxEventWritten event) {
+        if (running) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * Delivers every event that is available now on the calling thread and returns how many there were. A failed
+     * delivery is rescheduled as usual rather than retried here.
+     */
+    public int drain() {
+        int claimed = 0;
+        List<Claimed> batch;
+        do {
+            batch = claim(batchSize);
+            batch.forEach(this::deliver);
+            claimed += batch.size();
+        } while (batch.size() == batchSize);
+        return claimed;
+    }
+
+    @Scheduled(cron = "${socialmedia.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeDelivered() {
+        int purged = jdbcTemplate.update("DELETE FROM outbox_event WHERE processed_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        log.info("Purged {} delivered outbox events", purged);
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                if (!dispatchBatch()) {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Polling the outbox failed", e);
+                sleepQuietly(pollInterval);
+            }
+        }
+    }
+
+    // Claims as many events as there is room for on the lanes; true when that filled the room, so more may be waiting
+    boolean dispatchBatch() throws InterruptedException {
+        room.acquire();
+        int limit = 1 + room.drainPermits();
+        List<Claimed> claimed;
+        try {
+            claimed = claim(limit);
+        } catch (RuntimeException e) {
+            room.release(limit);
+            throw e;
+        }
+        room.release(limit - claimed.size());
+        for (Claimed c : claimed) {
+            lanes[(int) Math.floorMod(c.event().aggregateId(), (long) lanes.length)].execute(() -> {
+                try {
+                    deliver(c);
+                } finally {
+                    room.release();
+                }
+            });
+        }
+        return claimed.size() == limit;
+    }
+
+    private List<Claimed> claim(int limit) {
+        Instant now = Instant.now();
+        Timestamp nowTimestamp = Timestamp.from(now);
+        List<Claimed> candidates = new ArrayList<>();
+        List<Object[]> unknown = new ArrayList<>();
+        jdbcTemplate.query(CLAIMABLE, (RowCallbackHandler) rs -> {
+            DomainEventType type = typeOf(rs.getString("type"));
+            if (type == null) {
+                unknown.add(new Object[]{rs.getLong("id"), rs.getString("type")});
+                return;
+            }
+            candidates.add(new Claimed(new DomainEvent(
+                    rs.getLong("id"),
+                    type,
+                    rs.getLong("aggregate_id"),
+                    (Long) rs.getObject("actor_id", Long.class),
+                    rs.getTimestamp("created").toInstant()),
+                    rs.getInt("attempts") + 1));
+        }, nowTimestamp, limit);
+        if (!unknown.isEmpty()) {
+            park(unknown, nowTimestamp);
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Timestamp leaseEnd = Timestamp.from(now.plus(lease));
+        int[][] updated = jdbcTemplate.batchUpdate(CLAIM, candidates, candidates.size(), (ps, candidate) -> {
+            ps.setTimestamp(1, leaseEnd);
+            ps.setLong(2, candidate.event().id());
+            ps.setTimestamp(3, nowTimestamp);
+        });
+        // Rows another relay claimed first update nothing
+        List<Claimed> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (updated[0][i] != 0) {
+                claimed.add(candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    // A type this build doesn't know, typically written by a newer build mid-deploy, waits out the longest backoff
+    // for a relay that knows it instead of failing the whole batch
+    private void park(List<Object[]> unknown, Timestamp now) {
+        Timestamp retryAt = Timestamp.from(now.toInstant().plus(maxRetryBackoff));
+        jdbcTemplate.batchUpdate(PARKED, unknown, unknown.size(), (ps, row) -> {
+            ps.setTimestamp(1, retryAt);
+            ps.setString(2, "Unknown event type " + row[1]);
+            ps.setLong(3, (Long) row[0]);
+            ps.setTimestamp(4, now);
+        });
+        for (Object[] row : unknown) {
+            log.warn("Outbox event {} has unknown type {}; parked until {}", row[0], row[1], retryAt);
+        }
+    }
+
+    private static DomainEventType typeOf(String name) {
+        try {
+            return DomainEventType.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private void deliver(Claimed claimed) {
+        DomainEvent event = claimed.event();
+        try {
+            for (DomainEventHandler handler : handlers) {
+                handler.handle(event);
+            }
+            jdbcTemplate.update(DELIVERED, Timestamp.from(Instant.now()), event.id());
+            meterRegistry.counter("socialmedia.outbox.deliveries", "type", event.type().name(), "outcome", "delivered").increment();
+            meterRegistry.timer("socialmedia.outbox.lag", "type", event.type().name())
+                    .record(Duration.between(event.created(), Instant.now()));
+        } catch (RuntimeException e) {
+            meterRegistry.counter("socialmedia.outbox.deliveries", "type", event.type().name(), "outcome", "failed").increment();
+            Duration backoff = backoff(claimed.attempt());
+            log.warn("Delivering outbox event {} ({}) failed on attempt {}; retrying in {}",
+                    event.id(), event.type(), claimed.attempt(), backoff, e);
+            try {
+                String error = String.valueOf(e);
+                jdbcTemplate.update(FAILED, Timestamp.from(Instant.now().plus(backoff)),
+                        error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, event.id());
+            } catch (RuntimeException recordFailure) {
+                // The lease still runs out, just later than the backoff would have
+                log.warn("Could not reschedule outbox event {}", event.id(), recordFailure);
+            }
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Claimed(DomainEvent event, int attempt) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.cooksys.socialmedia.ratelimit;
+
+import com.cooksys.socialmedia.exceptions.TooManyRequestsException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by a string, such as a username or a client address. A bucket holds up to {@code capacity}
+ * requests and refills at {@code refill-per-second}. {@link com.cooksys.socialmedia.config.RateLimitConfig} sets
+ * one up per thing that is limited, and {@link WriteRateLimiter} decides which of them a write is charged to.
+ * <p>
+ * Each bucket is a single {@code AtomicLong}: the time at which it will be full again. Refilling is implied by the
+ * clock moving past that time, so nothing refills in the background. A request pushes the time one refill
+ * interval further out with a compare-and-set, and is refused if that would put the bucket more than
+ * {@code capacity} intervals behind. That makes a hit one map lookup and one CAS, with no locks and no allocation.
+ * <p>
+ * A bucket whose full-again time has passed holds nothing a fresh bucket wouldn't, so dropping it changes no
+ * decision. Once the map reaches {@code max-buckets}, the next new key's thread drops every such idle bucket. If
+ * a request is using a bucket at the moment it is dropped, that one request may go uncounted.
+ */
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final String subject;
+    private final boolean enabled;
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+    private volatile int evictAbove;
+
+    /**
+     * @param subject what a key is, e.g. "user", for the message sent with a refusal
+     */
+    public RateLimiter(String subject, boolean enabled, int capacity, double refillPerSecond, int maxBuckets) {
+        this(subject, enabled, capacity, refillPerSecond, maxBuckets, System::nanoTime);
+    }
+
+    RateLimiter(boolean enabled, int capacity, double refillPerSecond, int maxBuckets, LongSupplier nanoClock) {
+        this("user", enabled, capacity, refillPerSecond, maxBuckets, nanoClock);
+    }
+
+    private RateLimiter(String subject, boolean enabled, int capacity, double refillPerSecond, int maxBuckets,
+                        LongSupplier nanoClock) {
+        this.subject = subject;
+        this.enabled = enabled;
+        this.refillIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        this.burstNanos = refillIntervalNanos * capacity;
+        this.maxBuckets = maxBuckets;
+        this.evictAbove = maxBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a token from the key's bucket, or throws {@link TooManyRequestsException} saying how long until one
+     * is available. A null key isn't limited; the service rejects the request anyway.
+     */
+    public void acquire(String key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        refuseIfWaiting(key, tryAcquire(key));
+    }
+
+    /**
+     * Throws like {@link #acquire} would if the key's bucket is empty, without taking a token.
+     */
+    public void check(String key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        refuseIfWaiting(key, waitNanos(key));
+    }
+
+    private void refuseIfWaiting(String key, long waitNanos) {
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException("Too many requests for " + subject + " '" + key + "'; retry in "
+                    + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms.", retryAfterSeconds);
+        }
+    }
+
+    /** Returns 0 when the key has a token left, otherwise the nanoseconds until it has one. */
+    long waitNanos(String key) {
+        AtomicLong bucket = fullAt.get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long current = bucket.get();
+        long overdraft = (current - now > 0 ? current : now) + refillIntervalNanos - now - burstNanos;
+        return Math.max(0, overdraft);
+    }
+
+    /** Returns 0 when a token was taken, otherwise the nanoseconds until the next one is available. */
+    long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = fullAt.get(key);
+        if (bucket == null) {
+            if (fullAt.size() >= evictAbove) {
+                evictIdle(now);
+            }
+            bucket = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = bucket.get();
+            long next = (current - now > 0 ? current : now) + refillIntervalNanos;
+            long overdraft = next - now - burstNanos;
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int buckets() {
+        return fullAt.size();
+    }
+
+    // Only one thread sweeps at a time; the next sweep waits until the map has grown again, so a map full of
+    // active buckets isn't rescanned on every new user
+    private void evictIdle(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            fullAt.values().removeIf(bucket -> bucket.get() - now <= 0);
+            evictAbove = Math.max(maxBuckets, 2 * fullAt.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
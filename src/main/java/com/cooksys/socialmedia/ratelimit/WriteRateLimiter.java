@@ -0,0 +1,61 @@
+package com.cooksys.socialmedia.ratelimit;
+
+import com.cooksys.socialmedia.entities.User;
+import com.cooksys.socialmedia.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Decides which bucket a write is charged to. A write is charged to its user only once the credentials in the
+ * request are known to be theirs, so naming someone else in a request body can't drain their bucket. Attempts
+ * whose credentials don't check out are charged to the client's address instead, in smaller buckets, which stops
+ * password guessing and the lookups it costs; the service still rejects those with its usual error.
+ * <p>
+ * The credentials are checked with {@link UserRepository#findByCredentials_Username}, which the query and
+ * second-level caches answer for users who write regularly. Writes are pinned to the primary, so a user created a
+ * moment ago is found. Behind a proxy, {@code server.forward-headers-strategy} has to be set for the address to be
+ * the client's rather than the proxy's.
+ */
+@Component
+public class WriteRateLimiter {
+
+    private final RateLimiter userRateLimiter;
+    private final RateLimiter failedAuthRateLimiter;
+    private final UserRepository userRepository;
+
+    public WriteRateLimiter(@Qualifier("userRateLimiter") RateLimiter userRateLimiter,
+                            @Qualifier("failedAuthRateLimiter") RateLimiter failedAuthRateLimiter,
+                            UserRepository userRepository) {
+        this.userRateLimiter = userRateLimiter;
+        this.failedAuthRateLimiter = failedAuthRateLimiter;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Charges a write with the given credentials, or throws
+     * {@link com.cooksys.socialmedia.exceptions.TooManyRequestsException} if the user, or an address that keeps
+     * failing to authenticate, is out of tokens.
+     */
+    public void acquire(String username, String password, String remoteAddress) {
+        if (!userRateLimiter.isEnabled()) {
+            return;
+        }
+        failedAuthRateLimiter.check(remoteAddress);
+        if (authenticates(username, password)) {
+            userRateLimiter.acquire(username);
+        } else {
+            failedAuthRateLimiter.acquire(remoteAddress);
+        }
+    }
+
+    private boolean authenticates(String username, String password) {
+        if (username == null || password == null) {
+            return false;
+        }
+        Optional<User> user = userRepository.findByCredentials_Username(username);
+        return user.isPresent() && !user.get().isDeleted()
+                && password.equals(user.get().getCredentials().getPassword());
+    }
+}
@@ -0,0 +1,17 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.ChangeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, String> {
+
+    @Query("select c.changes from ChangeCounter c where c.name = :name")
+    Optional<Long> findChangesByName(@Param("name") String name);
+
+}
@@ -0,0 +1,20 @@
+package com.cooksys.socialmedia.repositories;
+
+/**
+ * Versions of a tweet and of every row embedded in its response at the default embed depth.
+ */
+public interface EmbeddedTweetVersions {
+
+    Long getVersion();
+
+    Long getAuthorVersion();
+
+    Long getInReplyToVersion();
+
+    Long getInReplyToAuthorVersion();
+
+    Long getRepostOfVersion();
+
+    Long getRepostOfAuthorVersion();
+
+}
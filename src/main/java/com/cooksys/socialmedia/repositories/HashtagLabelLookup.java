@@ -0,0 +1,17 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.Hashtag;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Finds a hashtag by its label through Hibernate's natural-id API, so repeated lookups of a label are answered
+ * from the {@code hashtag-label} natural-id cache region and the entity region without a query.
+ */
+public interface HashtagLabelLookup {
+
+    @Transactional(readOnly = true)
+    Optional<Hashtag> findByLabel(String label);
+
+}
@@ -0,0 +1,19 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.Hashtag;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class HashtagLabelLookupImpl implements HashtagLabelLookup {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Hashtag> findByLabel(String label) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Hashtag.class).loadOptional(label);
+    }
+}
@@ -1,16 +1,16 @@
 package com.cooksys.socialmedia.repositories;
 
 import com.cooksys.socialmedia.entities.Hashtag;
-import com.cooksys.socialmedia.entities.User;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
+public interface HashtagRepository extends JpaRepository<Hashtag, Long>, HashtagLabelLookup {
 
-    Optional<Hashtag> findByLabel(String label);
+    List<Hashtag> findByLabelIn(Collection<String> labels);
 
 }
\ No newline at end of file
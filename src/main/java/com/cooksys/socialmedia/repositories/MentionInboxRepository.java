@@ -0,0 +1,34 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.MentionInbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface MentionInboxRepository extends JpaRepository<MentionInbox, Long> {
+
+    @Query("select i.unreadCount from MentionInbox i join i.user u where u.credentials.username = :username and u.deleted = false")
+    Optional<Integer> findUnreadCountByUsername(String username);
+
+    @Modifying
+    @Query("update MentionInbox i set i.unreadCount = i.unreadCount + :count where i.userId in :userIds")
+    int addUnread(int count, Collection<Long> userIds);
+
+    // A deleted tweet leaves the inbox, so it stops counting for everyone it mentioned who hadn't read it yet
+    @Modifying
+    @Query("update MentionInbox i set i.unreadCount = i.unreadCount - 1"
+            + " where i.unreadCount > 0 and (i.readThrough is null or i.readThrough < :posted)"
+            + " and i.userId in (select m.userId from Mention m where m.tweetId = :tweetId)")
+    int retract(Long tweetId, Timestamp posted);
+
+    @Modifying
+    @Query("update MentionInbox i set i.unreadCount = 0, i.readThrough = :readThrough where i.userId = :userId")
+    int markRead(Long userId, Timestamp readThrough);
+
+}
@@ -0,0 +1,27 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.Mention;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface MentionRepository extends JpaRepository<Mention, Mention.Key> {
+
+    // A mention carries its tweet's posted time, which lets the join skip the tweet partitions of other months
+    @Query("select m from Mention m join Tweet t on t.id = m.tweetId and t.posted = m.posted"
+            + " where m.userId = :userId and t.deleted = false"
+            + " order by m.posted desc, m.tweetId desc")
+    List<Mention> findInbox(Long userId, Limit limit);
+
+    // Seeks past the cursor on the index rather than skipping the pages before it
+    @Query("select m from Mention m join Tweet t on t.id = m.tweetId and t.posted = m.posted"
+            + " where m.userId = :userId and (m.posted, m.tweetId) < (:posted, :tweetId) and t.deleted = false"
+            + " order by m.posted desc, m.tweetId desc")
+    List<Mention> findInboxBefore(Long userId, Timestamp posted, Long tweetId, Limit limit);
+
+}
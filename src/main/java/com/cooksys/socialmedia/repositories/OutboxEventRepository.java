@@ -0,0 +1,10 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+}
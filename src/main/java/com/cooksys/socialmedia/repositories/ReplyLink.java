@@ -0,0 +1,12 @@
+package com.cooksys.socialmedia.repositories;
+
+/**
+ * A reply somewhere below a tweet, and the tweet it answers.
+ */
+public interface ReplyLink {
+
+    Long getId();
+
+    Long getInReplyToId();
+
+}
@@ -1,25 +1,75 @@
 package com.cooksys.socialmedia.repositories;
 
+import com.cooksys.socialmedia.entities.Hashtag;
 import com.cooksys.socialmedia.entities.Tweet;
 import com.cooksys.socialmedia.entities.User;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TweetRepository extends JpaRepository<Tweet, Long> {
 
+    @Override
+    @EntityGraph("Tweet.embeds")
+    Optional<Tweet> findById(Long id);
+
+    @EntityGraph("Tweet.embeds")
+    List<Tweet> findByIdIn(Collection<Long> ids);
+
     List<Tweet> findByDeletedFalse();
 
+    @EntityGraph("Tweet.embeds")
     List<Tweet> findByDeletedFalseOrderByPostedDesc();
 
+    @EntityGraph("Tweet.embeds")
+    List<Tweet> findByAuthorAndDeletedFalseOrderByPostedDesc(User author);
+
+    @EntityGraph("Tweet.embeds")
+    List<Tweet> findByHashtagsAndDeletedFalseOrderByPostedDesc(Hashtag hashtag);
+
     List<Tweet> findByInReplyToAndInReplyToIsNotNull(Tweet parentTweet);
     
-    List<Tweet> findByMentionedUsersAndDeletedFalseOrderByPostedDesc(User user);
-    
+    @EntityGraph("Tweet.embeds")
     List<Tweet> findByInReplyToIdAndDeletedFalse(Long inReplyToId);
 
+    // The tweet's parent, grandparent and so on up to the root, nearest first, in one round trip
+    @Query(value = """
+            WITH RECURSIVE ancestor(id, depth) AS (
+                SELECT in_reply_to_id, 1 FROM tweet WHERE id = :id AND in_reply_to_id IS NOT NULL
+                UNION ALL
+                SELECT t.in_reply_to_id, a.depth + 1 FROM tweet t JOIN ancestor a ON t.id = a.id
+                WHERE t.in_reply_to_id IS NOT NULL
+            )
+            SELECT id FROM ancestor ORDER BY depth""", nativeQuery = true)
+    List<Long> findAncestorIds(@Param("id") Long id);
+
+    // Every reply below the tweet that isn't deleted or under a deleted reply, in one round trip
+    @Query(value = """
+            WITH RECURSIVE reply(id, in_reply_to_id) AS (
+                SELECT id, in_reply_to_id FROM tweet WHERE in_reply_to_id = :id AND deleted = false
+                UNION ALL
+                SELECT t.id, t.in_reply_to_id FROM tweet t JOIN reply r ON t.in_reply_to_id = r.id
+                WHERE t.deleted = false
+            )
+            SELECT id, in_reply_to_id AS inReplyToId FROM reply""", nativeQuery = true)
+    List<ReplyLink> findReplyLinks(@Param("id") Long id);
+
+    @Query("select t.version as version, a.version as authorVersion,"
+            + " r.version as inReplyToVersion, ra.version as inReplyToAuthorVersion,"
+            + " p.version as repostOfVersion, pa.version as repostOfAuthorVersion"
+            + " from Tweet t join t.author a"
+            + " left join t.inReplyTo r left join r.author ra"
+            + " left join t.repostOf p left join p.author pa"
+            + " where t.id = :id")
+    Optional<EmbeddedTweetVersions> findEmbeddedVersionsById(@Param("id") Long id);
+
 
 }
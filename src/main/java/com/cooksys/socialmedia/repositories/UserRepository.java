@@ -2,18 +2,30 @@ package com.cooksys.socialmedia.repositories;
 
 import com.cooksys.socialmedia.entities.Tweet;
 import com.cooksys.socialmedia.entities.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findByCredentials_Username(String username);
 
+    List<User> findByCredentials_UsernameIn(Collection<String> usernames);
+
     List<User> findByLikedTweets(Tweet tweet);
 
+    List<User> findByIdInAndDeletedFalse(Collection<Long> ids);
+
+    @Query("select u.version from User u where u.credentials.username = :username and u.deleted = false")
+    Optional<Long> findVersionByUsername(String username);
+
     
 }
\ No newline at end of file
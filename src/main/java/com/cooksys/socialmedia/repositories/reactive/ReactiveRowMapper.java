@@ -0,0 +1,69 @@
+package com.cooksys.socialmedia.repositories.reactive;
+
+import com.cooksys.socialmedia.dtos.ProfileDto;
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import io.r2dbc.spi.Row;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Maps rows selected under a column prefix straight into response DTOs, the way the MapStruct
+ * mappers render the same rows on the blocking path.
+ */
+final class ReactiveRowMapper {
+
+    private ReactiveRowMapper() {
+    }
+
+    static UserResponseDto user(Row row, String prefix) {
+        String username = row.get(prefix + "username", String.class);
+        if (username == null) {
+            return null;
+        }
+        ProfileDto profile = new ProfileDto();
+        profile.setFirstName(row.get(prefix + "first_name", String.class));
+        profile.setLastName(row.get(prefix + "last_name", String.class));
+        profile.setEmail(row.get(prefix + "email", String.class));
+        profile.setPhone(row.get(prefix + "phone", String.class));
+
+        UserResponseDto user = new UserResponseDto();
+        user.setUsername(username);
+        user.setJoined(timestamp(row, prefix + "joined"));
+        user.setProfile(profile);
+        return user;
+    }
+
+    /**
+     * A tweet without its parents: the columns are {@code id, posted, content} under {@code prefix}
+     * and the author's columns under {@code prefix + "a_"}.
+     */
+    static TweetResponseDto shallowTweet(Row row, String prefix) {
+        Long id = row.get(prefix + "id", Long.class);
+        if (id == null) {
+            return null;
+        }
+        TweetResponseDto tweet = new TweetResponseDto();
+        tweet.setId(id);
+        tweet.setPosted(timestamp(row, prefix + "posted"));
+        tweet.setContent(row.get(prefix + "content", String.class));
+        tweet.setAuthor(user(row, prefix + "a_"));
+        return tweet;
+    }
+
+    static TweetResponseDto reference(Row row, String column) {
+        Long id = row.get(column, Long.class);
+        if (id == null) {
+            return null;
+        }
+        TweetResponseDto reference = new TweetResponseDto();
+        reference.setId(id);
+        return reference;
+    }
+
+    private static Timestamp timestamp(Row row, String column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
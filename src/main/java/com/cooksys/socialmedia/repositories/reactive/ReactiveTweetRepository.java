@@ -0,0 +1,104 @@
+package com.cooksys.socialmedia.repositories.reactive;
+
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads tweets as response DTOs in a single joined query per request. Parents are rendered one
+ * level deep, matching the default {@code socialmedia.tweets.embed-depth}, and their own parents
+ * as id-only references. List queries fetch in batches so rows reach the response as the client
+ * consumes them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTweetRepository {
+
+    private static final int FETCH_SIZE = 256;
+
+    private static final String SELECT_EMBEDDED = """
+            SELECT t.id, t.posted, t.content,
+                   a.username AS a_username, a.joined AS a_joined, a.first_name AS a_first_name,
+                   a.last_name AS a_last_name, a.email AS a_email, a.phone AS a_phone,
+                   p.id AS p_id, p.posted AS p_posted, p.content AS p_content,
+                   p.in_reply_to_id AS p_in_reply_to_id, p.repost_of_id AS p_repost_of_id,
+                   pa.username AS p_a_username, pa.joined AS p_a_joined, pa.first_name AS p_a_first_name,
+                   pa.last_name AS p_a_last_name, pa.email AS p_a_email, pa.phone AS p_a_phone,
+                   r.id AS r_id, r.posted AS r_posted, r.content AS r_content,
+                   r.in_reply_to_id AS r_in_reply_to_id, r.repost_of_id AS r_repost_of_id,
+                   ra.username AS r_a_username, ra.joined AS r_a_joined, ra.first_name AS r_a_first_name,
+                   ra.last_name AS r_a_last_name, ra.email AS r_a_email, ra.phone AS r_a_phone
+            FROM tweet t
+            LEFT JOIN user_table a ON a.id = t.author_id
+            LEFT JOIN tweet p ON p.id = t.in_reply_to_id
+            LEFT JOIN user_table pa ON pa.id = p.author_id
+            LEFT JOIN tweet r ON r.id = t.repost_of_id
+            LEFT JOIN user_table ra ON ra.id = r.author_id
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<TweetResponseDto> findById(Long id) {
+        return databaseClient.sql(SELECT_EMBEDDED + "WHERE t.id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> embeddedTweet(row))
+                .one();
+    }
+
+    public Flux<TweetResponseDto> findByDeletedFalseOrderByPostedDesc() {
+        return streamed(databaseClient.sql(SELECT_EMBEDDED + "WHERE t.deleted = false ORDER BY t.posted DESC"));
+    }
+
+    public Flux<TweetResponseDto> findByAuthorUsernameAndDeletedFalseOrderByPostedDesc(String username) {
+        return streamed(databaseClient.sql(SELECT_EMBEDDED + "WHERE a.username = :username AND t.deleted = false ORDER BY t.posted DESC")
+                .bind("username", username));
+    }
+
+    public Flux<TweetResponseDto> findByHashtagLabelAndDeletedFalseOrderByPostedDesc(String label) {
+        return streamed(databaseClient.sql(SELECT_EMBEDDED + """
+                        JOIN tweet_hashtags th ON th.tweet_id = t.id
+                        JOIN hashtag h ON h.id = th.hashtag_id
+                        WHERE h.label = :label AND t.deleted = false
+                        ORDER BY t.posted DESC""")
+                .bind("label", label));
+    }
+
+    public Mono<Boolean> existsByHashtagLabel(String label) {
+        return databaseClient.sql("""
+                        SELECT th.tweet_id
+                        FROM tweet_hashtags th
+                        JOIN hashtag h ON h.id = th.hashtag_id
+                        WHERE h.label = :label
+                        FETCH FIRST 1 ROWS ONLY""")
+                .bind("label", label)
+                .map((row, metadata) -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    private Flux<TweetResponseDto> streamed(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map((row, metadata) -> embeddedTweet(row))
+                .all();
+    }
+
+    private static TweetResponseDto embeddedTweet(Row row) {
+        TweetResponseDto tweet = ReactiveRowMapper.shallowTweet(row, "");
+        tweet.setInReplyTo(parent(row, "p_"));
+        tweet.setRepostOf(parent(row, "r_"));
+        return tweet;
+    }
+
+    private static TweetResponseDto parent(Row row, String prefix) {
+        TweetResponseDto parent = ReactiveRowMapper.shallowTweet(row, prefix);
+        if (parent != null) {
+            parent.setInReplyTo(ReactiveRowMapper.reference(row, prefix + "in_reply_to_id"));
+            parent.setRepostOf(ReactiveRowMapper.reference(row, prefix + "repost_of_id"));
+        }
+        return parent;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cooksys.socialmedia.repositories.reactive;
+
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<UserResponseDto> findActiveByUsername(String username) {
+        return databaseClient.sql("""
+                        SELECT u.username, u.joined, u.first_name, u.last_name, u.email, u.phone
+                        FROM user_table u
+                        WHERE u.username = :username AND u.deleted = false""")
+                .bind("username", username)
+                .map((row, metadata) -> ReactiveRowMapper.user(row, ""))
+                .one();
+    }
+}
@@ -0,0 +1,11 @@
+package com.cooksys.socialmedia.services;
+
+import com.cooksys.socialmedia.dtos.CacheRegionStatisticsDto;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+
+    List<CacheRegionStatisticsDto> getRegionStatistics();
+
+}
@@ -0,0 +1,24 @@
+package com.cooksys.socialmedia.services;
+
+/**
+ * Computes entity tags for GET responses from version columns alone, so a conditional request
+ * can be answered with 304 before any entity is loaded or DTO is mapped. A method returns null
+ * when the resource does not exist, leaving the not-found response to the regular service call.
+ * <p>
+ * A single tweet's or user's tag comes from the versions of the rows it renders. A listing's tag comes from its
+ * change counter, which the outbox bumps shortly after each commit; inside the client's read-your-writes window,
+ * when the counter may not have caught up with the client's own write yet, the listing methods return null too.
+ */
+public interface ETagService {
+
+    String getTweetETag(Long id);
+
+    String getTweetsETag();
+
+    String getUserETag(String username);
+
+    String getUsersETag();
+
+    String getTagsETag();
+
+}
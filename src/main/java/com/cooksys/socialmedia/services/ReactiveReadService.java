@@ -0,0 +1,24 @@
+package com.cooksys.socialmedia.services;
+
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterparts of the read-only {@link TweetService}, {@link UserService} and
+ * {@link HashtagService} calls, with the same responses and not-found errors.
+ */
+public interface ReactiveReadService {
+
+    Flux<TweetResponseDto> getAllTweets();
+
+    Mono<TweetResponseDto> getTweetById(Long id);
+
+    Mono<UserResponseDto> getUserByUsername(String username);
+
+    Flux<TweetResponseDto> getTweetsByUsername(String username);
+
+    Flux<TweetResponseDto> getTweetsByTag(String label);
+
+}
@@ -0,0 +1,12 @@
+package com.cooksys.socialmedia.services;
+
+import com.cooksys.socialmedia.dtos.ImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface TweetImportService {
+
+    ImportResultDto importTweets(InputStream ndjson) throws IOException;
+
+}
@@ -1,5 +1,6 @@
 package com.cooksys.socialmedia.services;
 
+import com.cooksys.socialmedia.cache.TweetJsonArray;
 import com.cooksys.socialmedia.dtos.*;
 import com.cooksys.socialmedia.entities.Credentials;
 import java.util.List;
@@ -8,12 +9,16 @@ public interface TweetService {
 
     List<TweetResponseDto> getAllTweets();
 
+    TweetJsonArray getAllTweetsAsJson();
+
     TweetResponseDto deleteTweetById(Long tweetId, CredentialsDto credentials);
 
     List<UserResponseDto> getUsersMentionedByTweetId(Long id);
 
     TweetResponseDto getTweetById(Long id);
 
+    List<TweetResponseDto> getTweetsByIds(List<Long> ids);
+
     List<TweetResponseDto> getRepostsById(Long id);
 
     List<UserResponseDto> getLikesById(Long id);
@@ -28,7 +33,7 @@ public interface TweetService {
     
     List<HashtagResponseDto> getTagsByTweetId(Long tweetId);
 
-    List<TweetResponseDto> getTweetByUserMentions(String username);
+    MentionsPageDto getTweetByUserMentions(String username, String cursor, Integer limit);
 
     List<TweetResponseDto> getTweetReplies(Long id);
     
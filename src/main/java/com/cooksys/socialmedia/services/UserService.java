@@ -1,7 +1,9 @@
 package com.cooksys.socialmedia.services;
 
+import com.cooksys.socialmedia.cache.TweetJsonArray;
 import com.cooksys.socialmedia.dtos.CredentialsDto;
 import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UnreadMentionsDto;
 import com.cooksys.socialmedia.dtos.UserRequestDto;
 import com.cooksys.socialmedia.dtos.UserResponseDto;
 
@@ -14,6 +16,8 @@ public interface UserService {
 
     UserResponseDto getUserByUsername(String username);
 
+    List<UserResponseDto> getUsersByUsernames(List<String> usernames);
+
     UserResponseDto deleteUserByUsername(String username, CredentialsDto credentials);
 
     void unfollowUser(String username, CredentialsDto credentials);
@@ -24,9 +28,17 @@ public interface UserService {
 
     List<TweetResponseDto> getFeed(String username);
 
+    TweetJsonArray getFeedAsJson(String username);
+
     List<UserResponseDto> getFollowers(String username);
 
     void followUser(String username, CredentialsDto credentialsDto);
+
+    List<UserResponseDto> getSuggestions(String username, Integer limit);
+
+    UnreadMentionsDto getUnreadMentions(String username);
+
+    void markMentionsRead(String username, CredentialsDto credentials);
     
     UserResponseDto updateUserProfile(String username, UserRequestDto userRequestDto);
 
@@ -0,0 +1,43 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.dtos.CacheRegionStatisticsDto;
+import com.cooksys.socialmedia.services.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStatisticsDto> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+
+        List<CacheRegionStatisticsDto> regions = new ArrayList<>();
+        for (String regionName : regionNames) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics == null) {
+                continue;
+            }
+            CacheRegionStatisticsDto dto = new CacheRegionStatisticsDto();
+            dto.setRegion(regionName);
+            dto.setHitCount(regionStatistics.getHitCount());
+            dto.setMissCount(regionStatistics.getMissCount());
+            dto.setPutCount(regionStatistics.getPutCount());
+            regions.add(dto);
+        }
+        return regions;
+    }
+}
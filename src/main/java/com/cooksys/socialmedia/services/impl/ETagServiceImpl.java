@@ -0,0 +1,67 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.cache.ChangeCounters;
+import com.cooksys.socialmedia.config.ReadYourWritesInterceptor;
+import com.cooksys.socialmedia.repositories.ChangeCounterRepository;
+import com.cooksys.socialmedia.repositories.EmbeddedTweetVersions;
+import com.cooksys.socialmedia.repositories.TweetRepository;
+import com.cooksys.socialmedia.repositories.UserRepository;
+import com.cooksys.socialmedia.services.ETagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ETagServiceImpl implements ETagService {
+
+    private final TweetRepository tweetRepository;
+    private final UserRepository userRepository;
+    private final ChangeCounterRepository changeCounterRepository;
+
+    @Override
+    public String getTweetETag(Long id) {
+        Optional<EmbeddedTweetVersions> found = tweetRepository.findEmbeddedVersionsById(id);
+        if (found.isEmpty()) {
+            return null;
+        }
+        EmbeddedTweetVersions versions = found.get();
+        return "tweet-" + id
+                + "-" + versions.getVersion() + "." + versions.getAuthorVersion()
+                + "-" + versions.getInReplyToVersion() + "." + versions.getInReplyToAuthorVersion()
+                + "-" + versions.getRepostOfVersion() + "." + versions.getRepostOfAuthorVersion();
+    }
+
+    @Override
+    public String getTweetsETag() {
+        return listETag(ChangeCounters.TWEETS);
+    }
+
+    @Override
+    public String getUserETag(String username) {
+        Optional<Long> version = userRepository.findVersionByUsername(username);
+        return version.map(v -> "user-" + username + "-" + v).orElse(null);
+    }
+
+    @Override
+    public String getUsersETag() {
+        return listETag(ChangeCounters.USERS);
+    }
+
+    @Override
+    public String getTagsETag() {
+        return listETag(ChangeCounters.TAGS);
+    }
+
+    // The counters trail the client's own writes by the outbox relay's lag, so a client in its read-your-writes
+    // window gets no list ETag and always the full response
+    private String listETag(String counter) {
+        if (ReadYourWritesInterceptor.isPinnedToPrimary()) {
+            return null;
+        }
+        return counter + "-" + changeCounterRepository.findChangesByName(counter).orElse(0L);
+    }
+}
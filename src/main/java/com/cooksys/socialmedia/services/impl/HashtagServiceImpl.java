@@ -3,7 +3,6 @@ package com.cooksys.socialmedia.services.impl;
 import com.cooksys.socialmedia.dtos.HashtagResponseDto;
 import com.cooksys.socialmedia.dtos.TweetResponseDto;
 import com.cooksys.socialmedia.entities.Hashtag;
-import com.cooksys.socialmedia.entities.Tweet;
 import com.cooksys.socialmedia.exceptions.NotFoundException;
 import com.cooksys.socialmedia.mappers.HashtagMapper;
 import com.cooksys.socialmedia.mappers.TweetMapper;
@@ -12,10 +11,8 @@ import com.cooksys.socialmedia.repositories.TweetRepository;
 import com.cooksys.socialmedia.services.HashtagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -28,33 +25,17 @@ public class HashtagServiceImpl implements HashtagService {
     private final TweetMapper tweetMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public List<HashtagResponseDto> getAllTags() {
         return hashtagMapper.entitiesToDtos(hashtagRepository.findAll());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TweetResponseDto> getTweetsByTag(String label) {
-
-        List<Hashtag> hashList = hashtagRepository.findAll();
-
-        Hashtag current = new Hashtag();
-        for (Hashtag h : hashList) {
-            if (h.getLabel().equals(label)) {
-                current = h;
-            }
-        }
-        if (current.getTweets().isEmpty()) {
-            throw new NotFoundException("Label could not be found for:" + label);
-        }
-        List<TweetResponseDto> tweets = new ArrayList<>();
-
-        for (Tweet t : tweetRepository.findAll()) {
-            if (t.getHashtags().contains(current) && !t.isDeleted()) {
-                tweets.add(tweetMapper.entityToDto(t));
-            }
-        }
-        Collections.sort(tweets, Comparator.comparing(TweetResponseDto::getPosted, Comparator.reverseOrder()));
-
-        return tweets;
+        // Hashtags are only created by the tweets that use them, so a label that exists has tweets
+        Hashtag hashtag = hashtagRepository.findByLabel(label)
+                .orElseThrow(() -> new NotFoundException("Label could not be found for:" + label));
+        return tweetMapper.entitiesToDtos(tweetRepository.findByHashtagsAndDeletedFalseOrderByPostedDesc(hashtag));
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.entities.Mention;
+import com.cooksys.socialmedia.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Where a page of a user's mentions ended: the last mention's posted time and tweet id, which together order the
+ * inbox without ties. Clients get it as an opaque string. The time is kept as the database's local date-time, so a
+ * cursor means the same thing whatever the server's time zone.
+ */
+record MentionCursor(Timestamp posted, long tweetId) {
+
+    static MentionCursor after(Mention mention) {
+        return new MentionCursor(mention.getPosted(), mention.getTweetId());
+    }
+
+    static MentionCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(',');
+            return new MentionCursor(Timestamp.valueOf(LocalDateTime.parse(decoded.substring(0, separator))),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    String encode() {
+        String plain = posted.toLocalDateTime() + "," + tweetId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,51 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import com.cooksys.socialmedia.exceptions.NotFoundException;
+import com.cooksys.socialmedia.repositories.reactive.ReactiveTweetRepository;
+import com.cooksys.socialmedia.repositories.reactive.ReactiveUserRepository;
+import com.cooksys.socialmedia.services.ReactiveReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    private final ReactiveTweetRepository reactiveTweetRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    @Override
+    public Flux<TweetResponseDto> getAllTweets() {
+        return reactiveTweetRepository.findByDeletedFalseOrderByPostedDesc();
+    }
+
+    @Override
+    public Mono<TweetResponseDto> getTweetById(Long id) {
+        return reactiveTweetRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Tweet not found.")));
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserByUsername(String username) {
+        return reactiveUserRepository.findActiveByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("No user found with username: '" + username + "'")));
+    }
+
+    @Override
+    public Flux<TweetResponseDto> getTweetsByUsername(String username) {
+        return getUserByUsername(username)
+                .thenMany(reactiveTweetRepository.findByAuthorUsernameAndDeletedFalseOrderByPostedDesc(username));
+    }
+
+    @Override
+    public Flux<TweetResponseDto> getTweetsByTag(String label) {
+        return reactiveTweetRepository.existsByHashtagLabel(label)
+                .flatMapMany(exists -> exists
+                        ? reactiveTweetRepository.findByHashtagLabelAndDeletedFalseOrderByPostedDesc(label)
+                        : Flux.error(new NotFoundException("Label could not be found for:" + label)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.cooksys.socialmedia.services.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the {@code #hashtag} and {@code @mention} tokens in tweet content. Replies and new tweets have
+ * always tokenized differently, and both behaviours are kept as they are.
+ */
+final class TweetContentParser {
+
+    private TweetContentParser() {
+    }
+
+    /**
+     * Tokens as read by replies: a token starts at '#' or '@' and runs until the first character that
+     * is not a letter, digit or underscore.
+     */
+    static List<String> scanTokens(String content) {
+        int tracker = 0;
+        boolean starter = false;
+
+        List<String> special = new ArrayList<>();
+
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '#' || content.charAt(i) == '@') {
+                tracker = i;
+                starter = true;
+            } else if (!Character.isLetter(content.charAt(i)) && !Character.isDigit(content.charAt(i)) && content.charAt(i) != '_') {
+                if (starter) {
+                    special.add(content.substring(tracker, i));
+                    starter = false;
+                }
+            }
+        }
+
+        if (starter) {
+            special.add(content.substring(tracker));
+        }
+        return special;
+    }
+
+    /**
+     * Tokens as read by new tweets: every space-separated word that starts with '#' or '@', punctuation
+     * included.
+     */
+    static List<String> splitTokens(String content) {
+        List<String> special = new ArrayList<>();
+        for (String word : content.split(" ")) {
+            if (word.startsWith("#") || word.startsWith("@")) {
+                special.add(word);
+            }
+        }
+        return special;
+    }
+}
@@ -0,0 +1,315 @@
+package com.cooksys.socialmedia.services.impl;
+
+import com.cooksys.socialmedia.dtos.CredentialsDto;
+import com.cooksys.socialmedia.dtos.ImportErrorDto;
+import com.cooksys.socialmedia.dtos.ImportResultDto;
+import com.cooksys.socialmedia.dtos.TweetRequestDto;
+import com.cooksys.socialmedia.entities.Hashtag;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.entities.User;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.outbox.OutboxPublisher;
+import com.cooksys.socialmedia.repositories.HashtagRepository;
+import com.cooksys.socialmedia.repositories.MentionInboxRepository;
+import com.cooksys.socialmedia.repositories.UserRepository;
+import com.cooksys.socialmedia.services.TweetImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports newline-delimited tweets in chunks. Each chunk is parsed in parallel, then authenticated and written in
+ * one transaction: users and hashtags not seen in an earlier chunk are resolved with one {@code IN} query each and
+ * the tweets go out as JDBC batches in one flush. A record that fails validation is reported by line number and
+ * skipped; a chunk the database rejects is reported record by record and the import carries on with the next chunk.
+ * Only the first {@code max-errors} failures are listed, so a bad file can't make the response unbounded.
+ * <p>
+ * A hashtag can be created by another import or a new tweet between being looked up and being inserted here, and
+ * the unique label then rejects the chunk. The chunk is retried once, by which time the label resolves to the
+ * existing hashtag.
+ */
+@Service
+@Slf4j
+public class TweetImportServiceImpl implements TweetImportService {
+
+    /** Width of the tweet content column. */
+    private static final int MAX_CONTENT_LENGTH = 255;
+
+    private final UserRepository userRepository;
+    private final HashtagRepository hashtagRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxPublisher outboxPublisher;
+    private final MentionInboxRepository mentionInboxRepository;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final int maxErrors;
+
+    public TweetImportServiceImpl(UserRepository userRepository, HashtagRepository hashtagRepository,
+                                  EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper, OutboxPublisher outboxPublisher,
+                                  MentionInboxRepository mentionInboxRepository,
+                                  @Value("${socialmedia.import.chunk-size:1000}") int chunkSize,
+                                  @Value("${socialmedia.import.jdbc-batch-size:200}") int jdbcBatchSize,
+                                  @Value("${socialmedia.import.max-errors:100}") int maxErrors) {
+        this.userRepository = userRepository;
+        this.hashtagRepository = hashtagRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxPublisher = outboxPublisher;
+        this.mentionInboxRepository = mentionInboxRepository;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public ImportResultDto importTweets(InputStream ndjson) throws IOException {
+        ImportResultDto result = new ImportResultDto();
+        Resolved resolved = new Resolved();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        long number = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            chunk.add(new Line(number, text));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, resolved, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, resolved, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<Line> lines, Resolved resolved, ImportResultDto result) {
+        List<Record> records = lines.parallelStream().map(this::parse).toList();
+        List<Record> valid = new ArrayList<>(records.size());
+        for (Record record : records) {
+            if (record.error() != null) {
+                fail(result, record.line(), record.error());
+            } else {
+                valid.add(record);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Map<String, Hashtag> created = new HashMap<>();
+            List<ImportErrorDto> rejected = new ArrayList<>();
+            try {
+                List<Record> written = transactionTemplate.execute(status -> write(valid, resolved, created, rejected));
+                result.setImported(result.getImported() + written.size());
+                // Only hashtags that were committed may be referenced by later chunks
+                created.forEach((label, hashtag) -> resolved.hashtagIds.put(label, hashtag.getId()));
+                rejected.forEach(error -> fail(result, error.getLine(), error.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == 1 && isConstraintViolation(e)) {
+                    log.debug("Retrying import chunk starting at line {} after a constraint violation", lines.get(0).number(), e);
+                    continue;
+                }
+                log.warn("Import chunk starting at line {} failed", lines.get(0).number(), e);
+                // Validation errors found inside the rolled-back transaction still stand; everything else failed
+                Set<Long> reported = new HashSet<>();
+                for (ImportErrorDto error : rejected) {
+                    reported.add(error.getLine());
+                    fail(result, error.getLine(), error.getMessage());
+                }
+                for (Record record : valid) {
+                    if (!reported.contains(record.line())) {
+                        fail(result, record.line(), "Batch failed; the tweet was not imported.");
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private static boolean isConstraintViolation(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || e instanceof ConstraintViolationException;
+    }
+
+    private Record parse(Line line) {
+        TweetRequestDto request;
+        try {
+            request = objectMapper.readValue(line.text(), TweetRequestDto.class);
+        } catch (JsonProcessingException e) {
+            return Record.failed(line.number(), "Malformed JSON: " + e.getOriginalMessage());
+        }
+        CredentialsDto credentials = request.getCredentials();
+        if (credentials == null || credentials.getUsername() == null || credentials.getPassword() == null) {
+            return Record.failed(line.number(), "Incorrect credential information.");
+        }
+        if (request.getContent() == null) {
+            return Record.failed(line.number(), "No content in the body.");
+        }
+        if (request.getContent().length() > MAX_CONTENT_LENGTH) {
+            return Record.failed(line.number(), "Content is longer than " + MAX_CONTENT_LENGTH + " characters.");
+        }
+        return new Record(line.number(), request, TweetContentParser.splitTokens(request.getContent()), null);
+    }
+
+    private List<Record> write(List<Record> records, Resolved resolved, Map<String, Hashtag> created,
+                               List<ImportErrorDto> rejected) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> labels = new HashSet<>();
+        for (Record record : records) {
+            usernames.add(record.request().getCredentials().getUsername());
+            for (String token : record.tokens()) {
+                if (token.startsWith("#")) {
+                    labels.add(token.substring(1));
+                } else if (token.startsWith("@")) {
+                    usernames.add(token.substring(1));
+                }
+            }
+        }
+        resolved.resolveUsers(usernames);
+        resolved.resolveHashtags(labels);
+
+        List<Record> authenticated = new ArrayList<>(records.size());
+        for (Record record : records) {
+            CredentialsDto credentials = record.request().getCredentials();
+            Author author = resolved.users.get(credentials.getUsername());
+            if (author == null || author.deleted() || !author.password().equals(credentials.getPassword())) {
+                rejected.add(new ImportErrorDto(record.line(), "Credentials are not correct."));
+            } else {
+                authenticated.add(record);
+            }
+        }
+
+        Map<Long, Integer> unread = new HashMap<>();
+        Set<Long> mentionedIds = new HashSet<>();
+        for (Record record : authenticated) {
+            Tweet tweet = new Tweet();
+            long authorId = resolved.users.get(record.request().getCredentials().getUsername()).id();
+            tweet.setAuthor(entityManager.getReference(User.class, authorId));
+            tweet.setContent(record.request().getContent());
+            mentionedIds.clear();
+            for (String token : record.tokens()) {
+                if (token.startsWith("#")) {
+                    String label = token.substring(1);
+                    Long id = resolved.hashtagIds.get(label);
+                    tweet.getHashtags().add(id != null
+                            ? entityManager.getReference(Hashtag.class, id)
+                            : created.computeIfAbsent(label, this::createHashtag));
+                } else if (token.startsWith("@")) {
+                    Author mentioned = resolved.users.get(token.substring(1));
+                    if (mentioned != null && mentionedIds.add(mentioned.id())) {
+                        tweet.getMentionedUsers().add(entityManager.getReference(User.class, mentioned.id()));
+                        unread.merge(mentioned.id(), 1, Integer::sum);
+                    }
+                }
+            }
+            entityManager.persist(tweet);
+            outboxPublisher.publish(DomainEventType.TWEET_CREATED, tweet.getId(), authorId);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        countUnreadMentions(unread);
+        return authenticated;
+    }
+
+    // One update per distinct count rather than per user; most users are mentioned once or twice in a chunk
+    private void countUnreadMentions(Map<Long, Integer> unread) {
+        Map<Integer, List<Long>> usersByCount = new HashMap<>();
+        unread.forEach((userId, count) -> usersByCount.computeIfAbsent(count, c -> new ArrayList<>()).add(userId));
+        usersByCount.forEach((count, userIds) -> mentionInboxRepository.addUnread(count, userIds));
+    }
+
+    private Hashtag createHashtag(String label) {
+        Hashtag hashtag = new Hashtag();
+        hashtag.setLabel(label);
+        entityManager.persist(hashtag);
+        return hashtag;
+    }
+
+    private void fail(ImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ImportErrorDto(line, message));
+        } else {
+            result.setErrorsOmitted(result.getErrorsOmitted() + 1);
+        }
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Record(long line, TweetRequestDto request, List<String> tokens, String error) {
+
+        static Record failed(long line, String error) {
+            return new Record(line, null, null, error);
+        }
+    }
+
+    private record Author(long id, String password, boolean deleted) {
+    }
+
+    /**
+     * Users and hashtags looked up so far in one import, including names that turned out not to exist, so each
+     * name is queried at most once per import.
+     */
+    private final class Resolved {
+
+        private final Map<String, Author> users = new HashMap<>();
+        private final Set<String> missingUsers = new HashSet<>();
+        private final Map<String, Long> hashtagIds = new HashMap<>();
+
+        void resolveUsers(Set<String> usernames) {
+            usernames.removeAll(users.keySet());
+            usernames.removeAll(missingUsers);
+            if (usernames.isEmpty()) {
+                return;
+            }
+            for (User user : userRepository.findByCredentials_UsernameIn(usernames)) {
+                users.put(user.getCredentials().getUsername(),
+                        new Author(user.getId(), user.getCredentials().getPassword(), user.isDeleted()));
+            }
+            usernames.removeAll(users.keySet());
+            missingUsers.addAll(usernames);
+        }
+
+        void resolveHashtags(Set<String> labels) {
+            labels.removeAll(hashtagIds.keySet());
+            if (labels.isEmpty()) {
+                return;
+            }
+            for (Hashtag hashtag : hashtagRepository.findByLabelIn(labels)) {
+                hashtagIds.put(hashtag.getLabel(), hashtag.getId());
+            }
+        }
+    }
+}
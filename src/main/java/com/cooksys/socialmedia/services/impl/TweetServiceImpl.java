@@ -1,10 +1,15 @@
 package com.cooksys.socialmedia.services.impl;
 
+import com.cooksys.socialmedia.cache.TweetJsonArray;
+import com.cooksys.socialmedia.cache.TweetJsonCache;
 import com.cooksys.socialmedia.dtos.*;
 import com.cooksys.socialmedia.entities.Credentials;
 import com.cooksys.socialmedia.entities.Hashtag;
+import com.cooksys.socialmedia.entities.Mention;
 import com.cooksys.socialmedia.entities.Tweet;
 import com.cooksys.socialmedia.entities.User;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.events.TweetChangedEvent;
 import com.cooksys.socialmedia.exceptions.BadRequestException;
 import com.cooksys.socialmedia.exceptions.NotAuthorizedException;
 import com.cooksys.socialmedia.exceptions.NotFoundException;
@@ -12,16 +17,28 @@ import com.cooksys.socialmedia.mappers.CredentialsMapper;
 import com.cooksys.socialmedia.mappers.HashtagMapper;
 import com.cooksys.socialmedia.mappers.TweetMapper;
 import com.cooksys.socialmedia.mappers.UserMapper;
+import com.cooksys.socialmedia.outbox.OutboxPublisher;
 import com.cooksys.socialmedia.repositories.HashtagRepository;
+import com.cooksys.socialmedia.repositories.MentionInboxRepository;
+import com.cooksys.socialmedia.repositories.MentionRepository;
+import com.cooksys.socialmedia.repositories.ReplyLink;
 import com.cooksys.socialmedia.repositories.TweetRepository;
 import com.cooksys.socialmedia.repositories.UserRepository;
 import com.cooksys.socialmedia.services.TweetService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 
@@ -36,16 +53,38 @@ public class TweetServiceImpl implements TweetService {
     private final CredentialsMapper credentialsMapper;
     private final HashtagRepository hashtagRepository;
     private final HashtagMapper hashtagMapper;
+    private final TweetJsonCache tweetJsonCache;
+    private final OutboxPublisher outboxPublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MentionRepository mentionRepository;
+    private final MentionInboxRepository mentionInboxRepository;
+
+    @Value("${socialmedia.multi-get.max-keys:500}")
+    private int maxMultiGetKeys;
+
+    @Value("${socialmedia.mentions.page-size:20}")
+    private int mentionsPageSize;
+
+    @Value("${socialmedia.mentions.max-page-size:100}")
+    private int maxMentionsPageSize;
 
     @Override
+    @Transactional(readOnly = true)
     public List<TweetResponseDto> getAllTweets() {
         // Get non-deleted tweets in reverse chronological order
         List<Tweet> nonDeletedTweets = tweetRepository.findByDeletedFalseOrderByPostedDesc();
         return tweetMapper.entitiesToDtos(nonDeletedTweets);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TweetJsonArray getAllTweetsAsJson() {
+        return tweetJsonCache.serialize(tweetRepository.findByDeletedFalseOrderByPostedDesc());
+    }
+
     // TODO: reimplement this once GET tweets/{id} is created
     @Override
+    @Transactional
     public TweetResponseDto deleteTweetById(Long tweetId, CredentialsDto credentialsDto) {
         Tweet tweet = tweetRepository.findById(tweetId).orElseThrow(() -> new IllegalArgumentException("Invalid tweet ID: " + tweetId));
 
@@ -59,12 +98,16 @@ public class TweetServiceImpl implements TweetService {
 
         tweet.setDeleted(true);
         tweetRepository.save(tweet);
+        mentionInboxRepository.retract(tweetId, tweet.getPosted());
+        outboxPublisher.publish(DomainEventType.TWEET_DELETED, tweetId, tweet.getAuthor().getId());
+        eventPublisher.publishEvent(new TweetChangedEvent(tweetId));
 
         return tweetMapper.entityToDto(tweet);
     }
     
     // TODO: reimplement this once GET tweets/{id} is created
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getUsersMentionedByTweetId(Long tweetId) {
         Tweet tweet = tweetRepository.findById(tweetId).orElseThrow(() -> new IllegalArgumentException("Invalid tweet ID: " + tweetId));
 
@@ -89,6 +132,7 @@ public class TweetServiceImpl implements TweetService {
     }
 
     @Override
+    @Transactional
     public TweetResponseDto createRepost(Long tweetId, CredentialsDto credentials) {
         Tweet tweet = tweetRepository.findById(tweetId).orElseThrow(() -> new NotFoundException("Invalid tweet ID: " + tweetId));
 
@@ -113,15 +157,13 @@ public class TweetServiceImpl implements TweetService {
         newTweet.setAuthor(credentU);
         newTweet.setRepostOf(tweet);
         tweetRepository.saveAndFlush(newTweet);
-        
-        credentU.getTweets().add(newTweet);
-        
-        userRepository.flush();
+        outboxPublisher.publish(DomainEventType.TWEET_CREATED, newTweet.getId(), credentU.getId());
         
         return tweetMapper.entityToDto(newTweet);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ContextDto getContext(Long tweetId) {
         Tweet tweet = tweetRepository.findById(tweetId).orElseThrow(() -> new NotFoundException("Invalid tweet ID: " + tweetId));
 
@@ -129,43 +171,52 @@ public class TweetServiceImpl implements TweetService {
             throw new NotFoundException("Tweet with ID: " + tweetId + " not found");
         }
 
-        ContextDto context = new ContextDto();
+        // Both sides of the thread come back as ids from one recursive query each, then load together
+        List<Long> ancestorIds = tweetRepository.findAncestorIds(tweetId);
+        Map<Long, List<Long>> repliesTo = new HashMap<>();
+        Set<Long> ids = new HashSet<>(ancestorIds);
+        for (ReplyLink link : tweetRepository.findReplyLinks(tweetId)) {
+            repliesTo.computeIfAbsent(link.getInReplyToId(), parent -> new ArrayList<>()).add(link.getId());
+            ids.add(link.getId());
+        }
+        Map<Long, Tweet> loaded = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Tweet t : tweetRepository.findByIdIn(ids)) {
+                loaded.put(t.getId(), t);
+            }
+        }
+
         List<TweetResponseDto> replyTos = new ArrayList<>();
+        for (Long id : ancestorIds) {
+            replyTos.add(tweetMapper.entityToDto(loaded.get(id)));
+        }
         List<TweetResponseDto> replies = new ArrayList<>();
+        addReplies(tweetId, repliesTo, loaded, replies);
 
-        TweetResponseDto tweetResponseDto = tweetMapper.entityToDto(tweet);
-        getInReplyToHelper(tweetResponseDto, replyTos);
-        getRepliesHelper(tweet.getReplies(), replies);
-
-        context.setTarget(tweetResponseDto);
+        ContextDto context = new ContextDto();
+        context.setTarget(tweetMapper.entityToDto(tweet));
         context.setBefore(replyTos);
         context.setAfter(replies);
         
         return context;
     }
 
-    private void getInReplyToHelper(TweetResponseDto tweet, List<TweetResponseDto> replyTos) {
-        Tweet t = tweetMapper.dtoToEntity(tweet.getInReplyTo());
-        if (t == null) {
+    // Each reply followed by its own replies, oldest first at every level
+    private void addReplies(Long parentId, Map<Long, List<Long>> repliesTo, Map<Long, Tweet> loaded,
+                            List<TweetResponseDto> replies) {
+        List<Long> children = repliesTo.get(parentId);
+        if (children == null) {
             return;
         }
-        replyTos.add(tweet.getInReplyTo());
-        getInReplyToHelper(tweet.getInReplyTo(), replyTos);
-    }
-
-    private void getRepliesHelper(List<Tweet> tweets, List<TweetResponseDto> replies) {
-        if (tweets != null) {
-            for (Tweet t : tweets) {
-                if (t.isDeleted()) {
-                    continue;
-                }
-                replies.add(tweetMapper.entityToDto(t));
-                getRepliesHelper(t.getReplies(), replies);
-            }
+        children.sort(null);
+        for (Long id : children) {
+            replies.add(tweetMapper.entityToDto(loaded.get(id)));
+            addReplies(id, repliesTo, loaded, replies);
         }
     }
   
   @Override
+  @Transactional(readOnly = true)
   public TweetResponseDto getTweetById(Long id) {
 	  
 	  Optional<Tweet> current = tweetRepository.findById(id);
@@ -177,7 +228,37 @@ public class TweetServiceImpl implements TweetService {
 	  return tweetMapper.entityToDto(current.get());
   }
   
+  /**
+   * Resolves many tweets with one query. The result lines up with the requested ids; an id that doesn't exist or
+   * belongs to a deleted tweet is a null entry.
+   */
   @Override
+  @Transactional(readOnly = true)
+  public List<TweetResponseDto> getTweetsByIds(List<Long> ids) {
+	  if(ids.size() > maxMultiGetKeys) {
+		  throw new BadRequestException("At most " + maxMultiGetKeys + " ids can be requested at once.");
+	  }
+	  Set<Long> distinct = new HashSet<>(ids);
+	  distinct.remove(null);
+	  Map<Long, Tweet> found = new HashMap<>();
+	  if(!distinct.isEmpty()) {
+		  for(Tweet t: tweetRepository.findByIdIn(distinct)) {
+			  if(!t.isDeleted()) {
+				  found.put(t.getId(), t);
+			  }
+		  }
+	  }
+	  
+	  List<TweetResponseDto> results = new ArrayList<>(ids.size());
+	  for(Long id: ids) {
+		  Tweet t = found.get(id);
+		  results.add(t == null ? null : tweetMapper.entityToDto(t));
+	  }
+	  return results;
+  }
+  
+  @Override
+  @Transactional(readOnly = true)
   public List<TweetResponseDto> getRepostsById(Long id){
 	  Optional<Tweet> current = tweetRepository.findById(id);
 	  
@@ -203,6 +284,7 @@ public class TweetServiceImpl implements TweetService {
   }
   
   @Override
+  @Transactional(readOnly = true)
   public List<UserResponseDto> getLikesById(Long id){
 	  Optional<Tweet> current = tweetRepository.findById(id);
 	  
@@ -222,6 +304,7 @@ public class TweetServiceImpl implements TweetService {
   }
   
   @Override
+  @Transactional
   public TweetResponseDto createReply(Long id, TweetRequestDto tweetRequest) {
   	Tweet current = new Tweet();
   	CredentialsDto credentials = tweetRequest.getCredentials();
@@ -250,109 +333,73 @@ public class TweetServiceImpl implements TweetService {
   	}
   	
   	
- 	String contenter = tweetRequest.getContent();
-  	
-  	int tracker = 0;
-  	boolean starter = false;
-  	
-  	List<String> special = new ArrayList<>();
-  	
-  	for(int i = 0; i < contenter.length(); i++) {
-  		if(contenter.charAt(i) == '#' || contenter.charAt(i) == '@') {
-  			tracker = i;
-  			starter = true;
-  		}
-  		else if(!Character.isLetter(contenter.charAt(i)) && !Character.isDigit(contenter.charAt(i)) && contenter.charAt(i) != '_') {
-  			if(starter == true) {
-  				special.add(contenter.substring(tracker, i));
-  				starter = false;
-  			}
-  			
-  		}
-  		
-  	}
-  	
-  	if(starter == true) {
-  		special.add(contenter.substring(tracker, contenter.length()));
-  	}
+  	List<String> special = TweetContentParser.scanTokens(tweetRequest.getContent());
 
   	current.setAuthor(author);
   	current.setContent(tweetRequest.getContent());
   	current.setInReplyTo(checkerTweet);
+  	attachTokens(current, special, true);
   	
-  	for(String u: special) {
-  		if(u.charAt(0) == '#') {
-  			Hashtag h = new Hashtag();
-  			for(Hashtag hasher: hashtagRepository.findAll()) {
-  				if(hasher.getLabel().equals(u.substring(1))) {
-  					h = hasher;
-  				}
-  			}
-  			if(h.getLabel() == null)
-  			{
-  				h.setLabel(u.substring(1));
-  				h.getTweets().add(current);
-  				hashtagRepository.saveAndFlush(h);
-  			}
-  		  	current.getHashtags().add(h);
-  		}
-  		else if(u.charAt(0) == '@') {
-  			String label = u.substring(1, u.length());
-  			for(User use: userRepository.findAll()) {
-  				if(use.getCredentials().getUsername().equals(label) && use.isDeleted() == false) {
-  					current.getMentionedUsers().add(use);
-  				}
-  			}
-  		}
-  	}
-  	
-  	return tweetMapper.entityToDto(tweetRepository.saveAndFlush(current));
+  	Tweet saved = tweetRepository.saveAndFlush(current);
+  	countUnreadMentions(saved);
+  	outboxPublisher.publish(DomainEventType.TWEET_CREATED, saved.getId(), author.getId());
+  	return tweetMapper.entityToDto(saved);
   }
   
-  // we need two functions, first function needs to take a string hashtag and then check if the hashtag exists, if it does return it, if not create it and then return created hashtag.  second function, check if user exists and if does return user, if it doesn't return null
+  /**
+   * Links the hashtags and mentioned users named in a tweet's tokens, creating hashtags that don't exist yet. A user
+   * named twice is mentioned once.
+   * Every lookup runs before anything is persisted, so none of them forces an early flush and the new hashtags,
+   * the tweet and its link rows all go out as JDBC batches in the single flush that follows.
+   */
+  private void attachTokens(Tweet tweet, List<String> tokens, boolean activeMentionsOnly) {
+	  Map<String, Hashtag> hashtags = new HashMap<>();
+	  List<Hashtag> created = new ArrayList<>();
+	  Set<String> mentionedUsernames = new HashSet<>();
+	  for(String token: tokens) {
+		  if(token.startsWith("#")) {
+			  tweet.getHashtags().add(hashtags.computeIfAbsent(token.substring(1), label -> findOrCreateHashtag(label, created)));
+		  }
+		  else if(token.startsWith("@") && mentionedUsernames.add(token.substring(1))) {
+			  Optional<User> mentioned = userRepository.findByCredentials_Username(token.substring(1));
+			  if(mentioned.isPresent() && !(activeMentionsOnly && mentioned.get().isDeleted())) {
+				  tweet.getMentionedUsers().add(mentioned.get());
+			  }
+		  }
+	  }
+	  hashtagRepository.saveAll(created);
+  }
+  
+  // Counts a new tweet among the unread mentions of everyone it mentions
+  private void countUnreadMentions(Tweet tweet) {
+	  Set<Long> mentioned = new HashSet<>();
+	  for(User u: tweet.getMentionedUsers()) {
+		  mentioned.add(u.getId());
+	  }
+	  if(!mentioned.isEmpty()) {
+		  mentionInboxRepository.addUnread(1, mentioned);
+	  }
+  }
   
-  private Hashtag createReturnHashtag(String hash) {
-		Optional<Hashtag> foundHashtag = hashtagRepository.findByLabel(hash);
+  private Hashtag findOrCreateHashtag(String label, List<Hashtag> created) {
+		Optional<Hashtag> foundHashtag = hashtagRepository.findByLabel(label);
 		if(foundHashtag.isPresent()) {
 			return foundHashtag.get();
 		}
 		Hashtag createdHashtag = new Hashtag();
-		createdHashtag.setLabel(hash);
-		hashtagRepository.saveAndFlush(createdHashtag);
+		createdHashtag.setLabel(label);
+		created.add(createdHashtag);
 		return createdHashtag;
   }
   
-  private Optional<User> checkUser(String username) {
-	  	String updatedUsername = username.substring(1);
-		Optional<User> foundUser = userRepository.findByCredentials_Username(updatedUsername);
-	return foundUser;
-  }
   @Override
+  @Transactional
   public TweetResponseDto postTweet(TweetRequestDto tweetRequest) {
 
-	  ArrayList<Hashtag> hashtagWords = new ArrayList<Hashtag>();
-	  
-	  ArrayList<User> mentionUsers = new ArrayList<User>();
-	  
 	  if(tweetRequest.getContent() == null) {
 		  throw new BadRequestException("No content in the body.");
 	  }
-	  
-	  String[] words = tweetRequest.getContent().split(" ");
-	  for (String word : words) {
-		  
-          if (word.startsWith("#")) {
-        	  hashtagWords.add(createReturnHashtag(word.substring(1)));
-        	  	
-          }
-        	  if (word.startsWith("@")) {
-        		  Optional<User> foundUser = checkUser(word);
-        		  if(foundUser.isPresent()) {
-        				mentionUsers.add(foundUser.get());
-        			}
-          }
-	  }
-          
+
 
   	Tweet current = new Tweet();
   	CredentialsDto credentials = tweetRequest.getCredentials();
@@ -380,13 +427,16 @@ public class TweetServiceImpl implements TweetService {
 
   	current.setAuthor(foundUser.get());
   	current.setContent(tweetRequest.getContent());
-  	current.setHashtags(hashtagWords);
-  	current.setMentionedUsers(mentionUsers);
+  	attachTokens(current, TweetContentParser.splitTokens(tweetRequest.getContent()), false);
 
-  	return tweetMapper.entityToDto(tweetRepository.saveAndFlush(current));
+  	Tweet saved = tweetRepository.saveAndFlush(current);
+  	countUnreadMentions(saved);
+  	outboxPublisher.publish(DomainEventType.TWEET_CREATED, saved.getId(), foundUser.get().getId());
+  	return tweetMapper.entityToDto(saved);
   }
   
   @Override
+  @Transactional(readOnly = true)
   public List<HashtagResponseDto> getTagsByTweetId(Long tweetId) {
 	  Tweet tweet = tweetRepository.findById(tweetId).orElseThrow(() -> new IllegalArgumentException("Invalid tweet ID: " + tweetId));
 	  if (tweet.isDeleted()) {
@@ -400,16 +450,67 @@ public class TweetServiceImpl implements TweetService {
       return hashtagMapper.entitiesToDtos(allTags);
   }
   
-  public List<TweetResponseDto> getTweetByUserMentions(String username) {
+  /**
+   * Pages through the live tweets mentioning a user, newest first. The cursor is the last mention of the previous
+   * page, so every page is one short range scan of the user's mentions however far back the reader has gone.
+   * <p>
+   * Without a cursor or a limit every mention comes back at once, as before paging existed. That form is
+   * deprecated and kept only for existing clients.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public MentionsPageDto getTweetByUserMentions(String username, String cursor, Integer limit) {
+	  boolean unpaged = cursor == null && limit == null;
+	  int pageSize = limit == null ? mentionsPageSize : limit;
+	  if(!unpaged && (pageSize < 1 || pageSize > maxMentionsPageSize)) {
+		  throw new BadRequestException("The limit must be between 1 and " + maxMentionsPageSize + ".");
+	  }
 	  Optional<User> foundUser = userRepository.findByCredentials_Username(username);
 	  if(foundUser.isEmpty()) {
 	  		throw new NotFoundException("User not found");
 	  	}
-	  List<Tweet> userResults = tweetRepository.findByMentionedUsersAndDeletedFalseOrderByPostedDesc(foundUser.get());
-	  return tweetMapper.entitiesToDtos(userResults);
+	  Long userId = foundUser.get().getId();
+	  
+	  // One more than the page shows whether there is a next one
+	  Limit fetch = unpaged ? Limit.unlimited() : Limit.of(pageSize + 1);
+	  List<Mention> mentions;
+	  if(cursor == null) {
+		  mentions = mentionRepository.findInbox(userId, fetch);
+	  } else {
+		  MentionCursor after = MentionCursor.decode(cursor);
+		  mentions = mentionRepository.findInboxBefore(userId, after.posted(), after.tweetId(), fetch);
+	  }
+	  boolean more = !unpaged && mentions.size() > pageSize;
+	  if(more) {
+		  mentions = mentions.subList(0, pageSize);
+	  }
+	  
+	  Map<Long, Tweet> tweets = new HashMap<>();
+	  if(!mentions.isEmpty()) {
+		  List<Long> ids = new ArrayList<>(mentions.size());
+		  for(Mention m: mentions) {
+			  ids.add(m.getTweetId());
+		  }
+		  for(Tweet t: tweetRepository.findByIdIn(ids)) {
+			  tweets.put(t.getId(), t);
+		  }
+	  }
+	  
+	  MentionsPageDto page = new MentionsPageDto();
+	  for(Mention m: mentions) {
+		  Tweet t = tweets.get(m.getTweetId());
+		  if(t != null) {
+			  page.getTweets().add(tweetMapper.entityToDto(t));
+		  }
+	  }
+	  if(more) {
+		  page.setNextCursor(MentionCursor.after(mentions.get(mentions.size() - 1)).encode());
+	  }
+	  return page;
   }
   
   @Override
+  @Transactional(readOnly = true)
   public List<TweetResponseDto> getTweetReplies(Long id){
 	  Optional<Tweet> tweet = tweetRepository.findById(id);
 	  if(tweet.isEmpty() || tweet.get().isDeleted()) {
@@ -420,6 +521,7 @@ public class TweetServiceImpl implements TweetService {
 	    
   }
   
+  @Transactional
   public void postTweetLike(Long id, Credentials credentialsDto) {
 	  Optional<User> foundUser = userRepository.findByCredentials_Username(credentialsDto.getUsername());
 	  if(foundUser.isEmpty()) {
@@ -437,7 +539,7 @@ public class TweetServiceImpl implements TweetService {
 		  throw new NotFoundException("Tweet not found");
 	  }
       user.getLikedTweets().add(tweet.get());
-      userRepository.saveAndFlush(user);
+      outboxPublisher.publish(DomainEventType.TWEET_LIKED, id, user.getId());
   }
 
   
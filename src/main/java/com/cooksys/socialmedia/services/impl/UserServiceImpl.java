@@ -1,19 +1,35 @@
 package com.cooksys.socialmedia.services.impl;
 
+import com.cooksys.socialmedia.cache.TweetJsonArray;
+import com.cooksys.socialmedia.cache.TweetJsonCache;
 import com.cooksys.socialmedia.dtos.*;
+import com.cooksys.socialmedia.entities.MentionInbox;
 import com.cooksys.socialmedia.entities.Tweet;
 import com.cooksys.socialmedia.entities.User;
+import com.cooksys.socialmedia.events.DomainEventType;
+import com.cooksys.socialmedia.events.UserChangedEvent;
 import com.cooksys.socialmedia.exceptions.BadRequestException;
 import com.cooksys.socialmedia.exceptions.NotAuthorizedException;
 import com.cooksys.socialmedia.exceptions.NotFoundException;
+import com.cooksys.socialmedia.graph.FollowSuggester;
+import com.cooksys.socialmedia.graph.SocialGraph;
 import com.cooksys.socialmedia.mappers.CredentialsMapper;
 import com.cooksys.socialmedia.mappers.TweetMapper;
 import com.cooksys.socialmedia.mappers.UserMapper;
+import com.cooksys.socialmedia.outbox.OutboxPublisher;
+import com.cooksys.socialmedia.repositories.MentionInboxRepository;
+import com.cooksys.socialmedia.repositories.TweetRepository;
 import com.cooksys.socialmedia.repositories.UserRepository;
 import com.cooksys.socialmedia.services.UserService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.*;
 
 @Service
@@ -21,9 +37,26 @@ import java.util.*;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final TweetRepository tweetRepository;
     private final UserMapper userMapper;
     private final TweetMapper tweetMapper;
     private final CredentialsMapper credentialsMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TweetJsonCache tweetJsonCache;
+    private final OutboxPublisher outboxPublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MentionInboxRepository mentionInboxRepository;
+    private final SocialGraph socialGraph;
+    private final FollowSuggester followSuggester;
+
+    @Value("${socialmedia.multi-get.max-keys:500}")
+    private int maxMultiGetKeys;
+
+    @Value("${socialmedia.suggestions.page-size:10}")
+    private int suggestionsPageSize;
+
+    @Value("${socialmedia.suggestions.candidates:100}")
+    private int maxSuggestions;
 
     private User getUserHelper(String username) {
         Optional<User> userToCheckFor = userRepository.findByCredentials_Username(username);
@@ -34,7 +67,13 @@ public class UserServiceImpl implements UserService {
         return userToCheckFor.get();
     }
 
+    // Drops the second-level cache entry so later lookups re-read the changed row
+    private void evictFromCache(User user) {
+        entityManagerFactory.getCache().evict(User.class, user.getId());
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getAllUsers() {
     	List<UserResponseDto> lister =  userMapper.entitiesToDtos(userRepository.findAll());
     	
@@ -49,6 +88,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
         User u = new User();
         CredentialsDto credentials = userRequestDto.getCredentials();
@@ -63,6 +103,9 @@ public class UserServiceImpl implements UserService {
                 if (use.isDeleted()) {
                     use.setDeleted(false);
                     userRepository.flush();
+                    evictFromCache(use);
+                    outboxPublisher.publish(DomainEventType.USER_REACTIVATED, use.getId(), use.getId());
+                    eventPublisher.publishEvent(new UserChangedEvent(use.getCredentials().getUsername()));
                     return userMapper.entityToDto(use);
                 } else {
                     throw new BadRequestException("This username is already in use.");
@@ -73,15 +116,51 @@ public class UserServiceImpl implements UserService {
         u.setProfile(userMapper.requestDtoToEntity(userRequestDto).getProfile());
         u.setCredentials(userMapper.requestDtoToEntity(userRequestDto).getCredentials());
 
-        return userMapper.entityToDto(userRepository.saveAndFlush(u));
+        User saved = userRepository.saveAndFlush(u);
+        MentionInbox inbox = new MentionInbox();
+        inbox.setUser(saved);
+        mentionInboxRepository.save(inbox);
+        outboxPublisher.publish(DomainEventType.USER_CREATED, saved.getId(), saved.getId());
+        return userMapper.entityToDto(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto getUserByUsername(String username) {
         return userMapper.entityToDto(getUserHelper(username));
     }
 
+    /**
+     * Resolves many users with one query. The result lines up with the requested usernames; a username that
+     * doesn't exist or belongs to a deleted user is a null entry.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> getUsersByUsernames(List<String> usernames) {
+        if (usernames.size() > maxMultiGetKeys) {
+            throw new BadRequestException("At most " + maxMultiGetKeys + " usernames can be requested at once.");
+        }
+        Set<String> distinct = new HashSet<>(usernames);
+        distinct.remove(null);
+        Map<String, User> found = new HashMap<>();
+        if (!distinct.isEmpty()) {
+            for (User u : userRepository.findByCredentials_UsernameIn(distinct)) {
+                if (!u.isDeleted()) {
+                    found.put(u.getCredentials().getUsername(), u);
+                }
+            }
+        }
+
+        List<UserResponseDto> results = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            User u = found.get(username);
+            results.add(u == null ? null : userMapper.entityToDto(u));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional
     public UserResponseDto deleteUserByUsername(String username, CredentialsDto credentials) {
         User current = new User();
         for (User u : userRepository.findAll()) {
@@ -101,11 +180,15 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.flush();
+        evictFromCache(current);
+        outboxPublisher.publish(DomainEventType.USER_DELETED, current.getId(), current.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(current.getCredentials().getUsername()));
 
         return userMapper.entityToDto(current);
     }
 
     @Override
+    @Transactional
     public void unfollowUser(String username, CredentialsDto credentials) {
     	
     	if(username == null) {
@@ -142,22 +225,24 @@ public class UserServiceImpl implements UserService {
         	followers.remove(current);
         }
         toUnfollow.setFollowers(followers);
+        outboxPublisher.publish(DomainEventType.USER_UNFOLLOWED, toUnfollow.getId(), current.getId());
+        socialGraph.recordUnfollow(current.getId(), toUnfollow.getId());
         
         userRepository.flush();
     	
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TweetResponseDto> getTweetsByUsername(String username) {
         User thisUser = getUserHelper(username);
-        List<Tweet> userTweets = thisUser.getTweets();
-        userTweets.sort(Comparator.comparing(Tweet::getPosted).reversed());
 
-        return tweetMapper.entitiesToDtos(userTweets);
+        return tweetMapper.entitiesToDtos(tweetRepository.findByAuthorAndDeletedFalseOrderByPostedDesc(thisUser));
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getFollowing(String username) {
         User thisUser = getUserHelper(username);
         List<User> followers = thisUser.getFollowing();
@@ -169,40 +254,46 @@ public class UserServiceImpl implements UserService {
 
     }
 
-    @Override
-    public List<TweetResponseDto> getFeed(String username) {
-        User current = new User();
-        List<TweetResponseDto> tweets = new ArrayList<>();
-        for (User u : userRepository.findAll()) {
-            if (userMapper.entityToDto(u).getUsername().equals(username) && !u.isDeleted()) {
-                current = u;
-            }
-        }
+    private List<Tweet> getFeedHelper(String username) {
+        return mergeFeed(getUserHelper(username));
+    }
 
-        if (userMapper.entityToDto(current).getUsername() == null) {
-            throw new NotFoundException("No user with the given username.");
-        }
+    // The user's own and followed users' non-deleted tweets, newest first
+    static List<Tweet> mergeFeed(User current) {
+        List<Tweet> tweets = new ArrayList<>();
 
         for (Tweet t : current.getTweets()) {
             if (!t.isDeleted()) {
-                tweets.add(tweetMapper.entityToDto(t));
+                tweets.add(t);
             }
         }
 
         for (User u : current.getFollowing()) {
             for (Tweet t : u.getTweets()) {
                 if (!t.isDeleted()) {
-                    tweets.add(tweetMapper.entityToDto(t));
+                    tweets.add(t);
                 }
             }
 
         }
-        Collections.sort(tweets, Comparator.comparing(TweetResponseDto::getPosted, Comparator.reverseOrder()));
+        tweets.sort(Comparator.comparing(Tweet::getPosted, Comparator.reverseOrder()));
         return tweets;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TweetResponseDto> getFeed(String username) {
+        return tweetMapper.entitiesToDtos(getFeedHelper(username));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TweetJsonArray getFeedAsJson(String username) {
+        return tweetJsonCache.serialize(getFeedHelper(username));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getFollowers(String username) {
         User current = new User();
         List<UserResponseDto> users = new ArrayList<>();
@@ -228,6 +319,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void followUser(String username, CredentialsDto credentialsDto) {
         User user = getUserHelper(credentialsDto.getUsername());
         User userToFollow = getUserHelper(username);
@@ -241,12 +333,70 @@ public class UserServiceImpl implements UserService {
         }
         user.getFollowing().add(userToFollow);
         userToFollow.getFollowers().add(user);
-        userRepository.saveAndFlush(userToFollow);
-        userRepository.saveAndFlush(user);
+        outboxPublisher.publish(DomainEventType.USER_FOLLOWED, userToFollow.getId(), user.getId());
+        socialGraph.recordFollow(user.getId(), userToFollow.getId());
 
     }
     
+    /**
+     * The user's best-ranked follow suggestions from the in-memory graph. The ranking is cached for a while, so
+     * accounts followed since are skipped here, and deleted accounts are dropped when the page is loaded, with
+     * further candidates loaded in their place.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> getSuggestions(String username, Integer limit) {
+        int pageSize = limit == null ? suggestionsPageSize : limit;
+        if (pageSize < 1 || pageSize > maxSuggestions) {
+            throw new BadRequestException("The limit must be between 1 and " + maxSuggestions + ".");
+        }
+        long userId = getUserHelper(username).getId();
+        long[] ranked = followSuggester.suggestions(userId);
+
+        List<UserResponseDto> suggestions = new ArrayList<>(pageSize);
+        int next = 0;
+        while (suggestions.size() < pageSize && next < ranked.length) {
+            List<Long> ids = new ArrayList<>();
+            while (ids.size() < pageSize - suggestions.size() && next < ranked.length) {
+                long candidate = ranked[next++];
+                if (!socialGraph.isFollowing(userId, candidate)) {
+                    ids.add(candidate);
+                }
+            }
+            Map<Long, User> live = new HashMap<>();
+            for (User u : userRepository.findByIdInAndDeletedFalse(ids)) {
+                live.put(u.getId(), u);
+            }
+            for (Long id : ids) {
+                User u = live.get(id);
+                if (u != null) {
+                    suggestions.add(userMapper.entityToDto(u));
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UnreadMentionsDto getUnreadMentions(String username) {
+        return new UnreadMentionsDto(mentionInboxRepository.findUnreadCountByUsername(username)
+                .orElseThrow(() -> new NotFoundException("No user found with username: '" + username + "'")));
+    }
+
+    @Override
+    @Transactional
+    public void markMentionsRead(String username, CredentialsDto credentials) {
+        User user = getUserHelper(username);
+        if (credentials == null || !user.getCredentials().getUsername().equals(credentials.getUsername())
+                || !user.getCredentials().getPassword().equals(credentials.getPassword())) {
+            throw new NotAuthorizedException("Not authorized");
+        }
+        mentionInboxRepository.markRead(user.getId(), Timestamp.from(Instant.now()));
+    }
+
     @Override
+    @Transactional
     public UserResponseDto updateUserProfile(String username, UserRequestDto userRequestDto) {
   	  Optional<User> foundUser = userRepository.findByCredentials_Username(username);
   	  if(foundUser.isEmpty()) {
@@ -289,6 +439,9 @@ public class UserServiceImpl implements UserService {
       }
       // Save the updated user to the repository.
       User updatedUser = userRepository.save(user);
+      evictFromCache(updatedUser);
+      outboxPublisher.publish(DomainEventType.USER_UPDATED, updatedUser.getId(), updatedUser.getId());
+      eventPublisher.publishEvent(new UserChangedEvent(updatedUser.getCredentials().getUsername()));
 
       // Convert the updated user entity back to a DTO to return.
       return userMapper.entityToDto(updatedUser);
@@ -9,6 +9,7 @@ import com.cooksys.socialmedia.repositories.UserRepository;
 import com.cooksys.socialmedia.services.ValidateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -21,6 +22,7 @@ public class ValidateServiceImpl implements ValidateService {
     private final HashtagRepository hashtagRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public boolean checkForHashtagExistance(String label) {
         Optional<Hashtag> foundHashtag = hashtagRepository.findByLabel(label);
         return foundHashtag.isPresent();
@@ -28,6 +30,7 @@ public class ValidateServiceImpl implements ValidateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean checkForUsernameExistance(String username) {
         for (User u : userRepository.findAll()) {
             if (userMapper.entityToDto(u).getUsername().equals(username)) {
@@ -38,6 +41,7 @@ public class ValidateServiceImpl implements ValidateService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean validateUsername(String username) {
         Optional<User> userToCheckFor = userRepository.findByCredentials_Username(username);
 
@@ -0,0 +1,74 @@
+-- The schema Hibernate generated from the entities before migrations were introduced. Ids come from
+-- pooled sequences, so every sequence increments by the allocation size of 50.
+
+CREATE SEQUENCE user_table_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tweet_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE hashtag_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_table (
+    id         bigint       NOT NULL,
+    version    bigint,
+    joined     timestamp(6),
+    deleted    boolean      NOT NULL,
+    username   varchar(255) NOT NULL,
+    password   varchar(255) NOT NULL,
+    first_name varchar(255),
+    last_name  varchar(255),
+    email      varchar(255),
+    phone      varchar(255),
+    CONSTRAINT user_table_pkey PRIMARY KEY (id),
+    CONSTRAINT user_table_username_key UNIQUE (username)
+);
+
+CREATE TABLE tweet (
+    id             bigint       NOT NULL,
+    version        bigint,
+    author_id      bigint,
+    posted         timestamp(6),
+    deleted        boolean      NOT NULL,
+    content        varchar(255),
+    in_reply_to_id bigint,
+    repost_of_id   bigint,
+    CONSTRAINT tweet_pkey PRIMARY KEY (id),
+    CONSTRAINT tweet_author_fkey FOREIGN KEY (author_id) REFERENCES user_table (id),
+    CONSTRAINT tweet_in_reply_to_fkey FOREIGN KEY (in_reply_to_id) REFERENCES tweet (id),
+    CONSTRAINT tweet_repost_of_fkey FOREIGN KEY (repost_of_id) REFERENCES tweet (id)
+);
+
+CREATE TABLE hashtag (
+    id         bigint       NOT NULL,
+    label      varchar(255) NOT NULL,
+    first_used timestamp(6),
+    last_used  timestamp(6),
+    CONSTRAINT hashtag_pkey PRIMARY KEY (id),
+    CONSTRAINT hashtag_label_key UNIQUE (label)
+);
+
+CREATE TABLE tweet_hashtags (
+    tweet_id   bigint NOT NULL,
+    hashtag_id bigint NOT NULL,
+    CONSTRAINT tweet_hashtags_tweet_fkey FOREIGN KEY (tweet_id) REFERENCES tweet (id),
+    CONSTRAINT tweet_hashtags_hashtag_fkey FOREIGN KEY (hashtag_id) REFERENCES hashtag (id)
+);
+
+CREATE TABLE user_mentions (
+    tweet_id bigint NOT NULL,
+    user_id  bigint NOT NULL,
+    CONSTRAINT user_mentions_tweet_fkey FOREIGN KEY (tweet_id) REFERENCES tweet (id),
+    CONSTRAINT user_mentions_user_fkey FOREIGN KEY (user_id) REFERENCES user_table (id)
+);
+
+CREATE TABLE user_likes (
+    user_id  bigint NOT NULL,
+    tweet_id bigint NOT NULL,
+    CONSTRAINT user_likes_user_fkey FOREIGN KEY (user_id) REFERENCES user_table (id),
+    CONSTRAINT user_likes_tweet_fkey FOREIGN KEY (tweet_id) REFERENCES tweet (id)
+);
+
+-- following_id is the followed user, followers_id the user following them
+CREATE TABLE followers_following (
+    following_id bigint NOT NULL,
+    followers_id bigint NOT NULL,
+    CONSTRAINT followers_following_following_fkey FOREIGN KEY (following_id) REFERENCES user_table (id),
+    CONSTRAINT followers_following_followers_fkey FOREIGN KEY (followers_id) REFERENCES user_table (id)
+);
@@ -0,0 +1,30 @@
+-- Indexes for the access paths of the repositories and of the lazily loaded collections. The join
+-- tables have no primary key (a tweet may name the same hashtag or user twice), so each gets a plain
+-- index in both directions.
+
+-- Timelines: a user's live tweets (also User.tweets) and the global feed, both newest first
+CREATE INDEX tweet_author_posted_idx ON tweet (author_id, posted DESC) WHERE deleted = false;
+CREATE INDEX tweet_posted_idx ON tweet (posted DESC) WHERE deleted = false;
+
+-- Replies, reply context and reposts of a tweet
+CREATE INDEX tweet_in_reply_to_idx ON tweet (in_reply_to_id);
+CREATE INDEX tweet_repost_of_idx ON tweet (repost_of_id);
+
+-- Tweet.hashtags and Hashtag.tweets
+CREATE INDEX tweet_hashtags_tweet_idx ON tweet_hashtags (tweet_id, hashtag_id);
+CREATE INDEX tweet_hashtags_hashtag_idx ON tweet_hashtags (hashtag_id, tweet_id);
+
+-- Tweet.mentionedUsers and a user's mentions
+CREATE INDEX user_mentions_tweet_idx ON user_mentions (tweet_id, user_id);
+CREATE INDEX user_mentions_user_idx ON user_mentions (user_id, tweet_id);
+
+-- User.likedTweets and the users who liked a tweet
+CREATE INDEX user_likes_user_idx ON user_likes (user_id, tweet_id);
+CREATE INDEX user_likes_tweet_idx ON user_likes (tweet_id, user_id);
+
+-- User.followers and User.following
+CREATE INDEX followers_following_following_idx ON followers_following (following_id, followers_id);
+CREATE INDEX followers_following_followers_idx ON followers_following (followers_id, following_id);
+
+-- The tags ETag reads the most recent use
+CREATE INDEX hashtag_last_used_idx ON hashtag (last_used);
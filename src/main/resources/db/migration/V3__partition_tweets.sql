@@ -0,0 +1,61 @@
+-- Splits tweet into a hot side, range partitioned by posted month, and an archive that TweetArchiver
+-- moves soft-deleted and old tweets into:
+--
+--   tweet                  LIST (archived)
+--     tweet_hot            archived = false, RANGE (posted)
+--       tweet_hot_yYYYYmMM one per month, created ahead of time by TweetArchiver
+--       tweet_hot_default  anything outside the monthly partitions
+--     tweet_archive        archived = true
+--
+-- A primary or unique key on a partitioned table must contain the partition keys, so id alone can't
+-- be referenced any more and the foreign keys pointing at tweet are dropped.
+
+ALTER TABLE tweet_hashtags DROP CONSTRAINT tweet_hashtags_tweet_fkey;
+ALTER TABLE user_mentions DROP CONSTRAINT user_mentions_tweet_fkey;
+ALTER TABLE user_likes DROP CONSTRAINT user_likes_tweet_fkey;
+
+ALTER TABLE tweet RENAME TO tweet_unpartitioned;
+ALTER TABLE tweet_unpartitioned RENAME CONSTRAINT tweet_pkey TO tweet_unpartitioned_pkey;
+
+CREATE TABLE tweet (
+    id             bigint       NOT NULL,
+    version        bigint,
+    author_id      bigint,
+    posted         timestamp(6) NOT NULL,
+    deleted        boolean      NOT NULL,
+    archived       boolean      NOT NULL DEFAULT false,
+    content        varchar(255),
+    in_reply_to_id bigint,
+    repost_of_id   bigint,
+    CONSTRAINT tweet_pkey PRIMARY KEY (id, archived, posted),
+    CONSTRAINT tweet_author_fkey FOREIGN KEY (author_id) REFERENCES user_table (id)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE tweet_hot PARTITION OF tweet FOR VALUES IN (false) PARTITION BY RANGE (posted);
+CREATE TABLE tweet_hot_default PARTITION OF tweet_hot DEFAULT;
+CREATE TABLE tweet_archive PARTITION OF tweet FOR VALUES IN (true);
+
+-- The current month, the three before it and the three after it
+DO $$
+DECLARE
+    month date := date_trunc('month', now()) - interval '3 months';
+BEGIN
+    WHILE month <= date_trunc('month', now()) + interval '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF tweet_hot FOR VALUES FROM (%L) TO (%L)',
+                       'tweet_hot_' || to_char(month, '"y"YYYY"m"MM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO tweet (id, version, author_id, posted, deleted, content, in_reply_to_id, repost_of_id)
+SELECT id, version, author_id, posted, deleted, content, in_reply_to_id, repost_of_id
+FROM tweet_unpartitioned;
+
+DROP TABLE tweet_unpartitioned;
+
+-- Created on the parent, so every partition, including the ones TweetArchiver adds later, gets its own copy
+CREATE INDEX tweet_author_posted_idx ON tweet (author_id, posted DESC) WHERE deleted = false;
+CREATE INDEX tweet_posted_idx ON tweet (posted DESC) WHERE deleted = false;
+CREATE INDEX tweet_in_reply_to_idx ON tweet (in_reply_to_id);
+CREATE INDEX tweet_repost_of_idx ON tweet (repost_of_id);
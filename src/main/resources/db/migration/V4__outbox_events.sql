@@ -0,0 +1,23 @@
+-- Transactional outbox: domain events are inserted with the change they record and delivered after commit by
+-- OutboxRelay. Delivered rows keep processed_at until they are purged.
+
+CREATE SEQUENCE outbox_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_event (
+    id           bigint        NOT NULL,
+    type         varchar(255)  NOT NULL,
+    aggregate_id bigint        NOT NULL,
+    actor_id     bigint,
+    created      timestamp(6)  NOT NULL,
+    available_at timestamp(6)  NOT NULL,
+    attempts     integer       NOT NULL,
+    processed_at timestamp(6),
+    last_error   varchar(1000),
+    CONSTRAINT outbox_event_pkey PRIMARY KEY (id)
+);
+
+-- The relay claims pending rows oldest first; delivered rows drop out of the index
+CREATE INDEX outbox_event_pending_idx ON outbox_event (id) WHERE processed_at IS NULL;
+
+-- Purging delivered rows
+CREATE INDEX outbox_event_processed_idx ON outbox_event (processed_at) WHERE processed_at IS NOT NULL;
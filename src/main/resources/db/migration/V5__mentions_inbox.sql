@@ -0,0 +1,25 @@
+-- Mentions inbox: user_mentions carries the mentioning tweet's posted time, so a user's mentions are paged newest
+-- first straight off an index, and mention_inbox keeps each user's unread count, maintained by the writes that add
+-- or remove mentions.
+
+ALTER TABLE user_mentions ADD COLUMN posted timestamp(6);
+UPDATE user_mentions m SET posted = t.posted FROM tweet t WHERE t.id = m.tweet_id;
+-- Mentions of tweets that no longer exist; nothing has enforced the reference since tweet was partitioned
+DELETE FROM user_mentions WHERE posted IS NULL;
+ALTER TABLE user_mentions ALTER COLUMN posted SET NOT NULL;
+
+-- Replaces user_mentions_user_idx: still leads with user_id for User.mentionedTweets, and pages the inbox
+CREATE INDEX user_mentions_user_posted_idx ON user_mentions (user_id, posted DESC, tweet_id DESC);
+DROP INDEX user_mentions_user_idx;
+
+CREATE TABLE mention_inbox (
+    user_id      bigint       NOT NULL,
+    unread_count integer      NOT NULL,
+    read_through timestamp(6),
+    CONSTRAINT mention_inbox_pkey PRIMARY KEY (user_id),
+    CONSTRAINT mention_inbox_user_fkey FOREIGN KEY (user_id) REFERENCES user_table (id)
+);
+
+-- Mentions from before the inbox existed count as read
+INSERT INTO mention_inbox (user_id, unread_count, read_through)
+SELECT id, 0, localtimestamp FROM user_table;
@@ -0,0 +1,13 @@
+-- Change counters for the list ETags: one row per listing, bumped as the outbox delivers the changes that touch it,
+-- so a conditional GET of a listing reads one row instead of aggregating over the listed table.
+
+CREATE TABLE change_counter (
+    name    varchar(255) NOT NULL,
+    changes bigint       NOT NULL,
+    CONSTRAINT change_counter_pkey PRIMARY KEY (name)
+);
+
+INSERT INTO change_counter (name, changes) VALUES ('tweets', 0), ('users', 0), ('tags', 0);
+
+-- Only the tags ETag read it, and every last-used flush had to maintain it
+DROP INDEX hashtag_last_used_idx;
@@ -0,0 +1,55 @@
+-- Puts back the references to tweet that V3 had to drop: a foreign key can only reference a unique key, and on the
+-- partitioned tweet every unique key includes archived and posted, which the referencing columns don't carry.
+-- Constraint triggers check the same things the foreign keys did and fail with the same SQLSTATE (23503):
+--
+--   tweet_hashtags.tweet_id, user_mentions.tweet_id, user_likes.tweet_id,
+--   tweet.in_reply_to_id, tweet.repost_of_id     must name an existing tweet
+--   a tweet                                      can't be deleted while any of those still name it
+--
+-- Unlike a foreign key, a check looks tweet up by id alone, so it probes the id index of every partition.
+-- TweetArchiver moving a tweet between partitions deletes and re-inserts it; the tweet still exists afterwards,
+-- so the move passes.
+
+CREATE FUNCTION tweet_reference_check() RETURNS trigger LANGUAGE plpgsql AS $$
+DECLARE
+    referenced bigint := (to_jsonb(NEW) ->> TG_ARGV[0])::bigint;
+BEGIN
+    IF referenced IS NOT NULL AND NOT EXISTS (SELECT 1 FROM tweet WHERE id = referenced) THEN
+        RAISE EXCEPTION 'insert or update on table "%" violates foreign key constraint "%"', TG_TABLE_NAME, TG_NAME
+            USING ERRCODE = 'foreign_key_violation',
+                  DETAIL = format('Key (%s)=(%s) is not present in table "tweet".', TG_ARGV[0], referenced);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION tweet_referenced_check() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM tweet WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM tweet_hashtags WHERE tweet_id = OLD.id)
+            OR EXISTS (SELECT 1 FROM user_mentions WHERE tweet_id = OLD.id)
+            OR EXISTS (SELECT 1 FROM user_likes WHERE tweet_id = OLD.id)
+            OR EXISTS (SELECT 1 FROM tweet WHERE in_reply_to_id = OLD.id)
+            OR EXISTS (SELECT 1 FROM tweet WHERE repost_of_id = OLD.id) THEN
+        RAISE EXCEPTION 'update or delete on table "tweet" violates foreign key constraint "%"', TG_NAME
+            USING ERRCODE = 'foreign_key_violation',
+                  DETAIL = format('Key (id)=(%s) is still referenced.', OLD.id);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE CONSTRAINT TRIGGER tweet_hashtags_tweet_fkey AFTER INSERT OR UPDATE OF tweet_id ON tweet_hashtags
+    FOR EACH ROW EXECUTE FUNCTION tweet_reference_check('tweet_id');
+CREATE CONSTRAINT TRIGGER user_mentions_tweet_fkey AFTER INSERT OR UPDATE OF tweet_id ON user_mentions
+    FOR EACH ROW EXECUTE FUNCTION tweet_reference_check('tweet_id');
+CREATE CONSTRAINT TRIGGER user_likes_tweet_fkey AFTER INSERT OR UPDATE OF tweet_id ON user_likes
+    FOR EACH ROW EXECUTE FUNCTION tweet_reference_check('tweet_id');
+CREATE CONSTRAINT TRIGGER tweet_in_reply_to_fkey AFTER INSERT OR UPDATE OF in_reply_to_id ON tweet
+    FOR EACH ROW EXECUTE FUNCTION tweet_reference_check('in_reply_to_id');
+CREATE CONSTRAINT TRIGGER tweet_repost_of_fkey AFTER INSERT OR UPDATE OF repost_of_id ON tweet
+    FOR EACH ROW EXECUTE FUNCTION tweet_reference_check('repost_of_id');
+CREATE CONSTRAINT TRIGGER tweet_referenced_fkey AFTER DELETE OR UPDATE OF id ON tweet
+    FOR EACH ROW EXECUTE FUNCTION tweet_referenced_check();
@@ -0,0 +1,68 @@
+package com.cooksys.socialmedia;
+
+import com.cooksys.socialmedia.outbox.OutboxRelay;
+import com.jayway.jsonpath.JsonPath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Base for tests that drive the API through MockMvc against in-memory H2. Subclasses share one application
+ * context and database, so each test works with users of its own. A subclass that needs other settings adds a
+ * {@code @TestPropertySource} that also sets {@code socialmedia.test.database}, which gives its context a database
+ * and cache regions of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${socialmedia.test.database:integration};DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.region_prefix=${socialmedia.test.database:integration}",
+        "socialmedia.reactive.enabled=false",
+        "socialmedia.multi-get.max-keys=4",
+        "socialmedia.import.chunk-size=3",
+        "socialmedia.mentions.page-size=5",
+        "socialmedia.mentions.max-page-size=10"
+})
+@AutoConfigureMockMvc
+public abstract class IntegrationTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected OutboxRelay outboxRelay;
+
+    protected void createUser(String username) throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"credentials\":" + credentials(username) + ",\"profile\":{\"email\":\"" + username + "@example.com\"}}"))
+                .andExpect(status().isOk());
+    }
+
+    protected long postTweet(String username, String content) throws Exception {
+        String response = mockMvc.perform(post("/tweets").contentType(MediaType.APPLICATION_JSON).content(tweet(username, content)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.id")).longValue();
+    }
+
+    protected void follow(String follower, String followee) throws Exception {
+        mockMvc.perform(post("/users/@" + followee + "/follow").contentType(MediaType.APPLICATION_JSON).content(credentials(follower)))
+                .andExpect(status().isOk());
+    }
+
+    // The relay doesn't run in tests, so outbox-driven work such as the list ETag counters waits for this
+    protected void deliverEvents() {
+        outboxRelay.drain();
+    }
+
+    protected static String tweet(String username, String content) {
+        return "{\"content\":\"" + content + "\",\"credentials\":" + credentials(username) + "}";
+    }
+
+    protected static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"pw\"}";
+    }
+}
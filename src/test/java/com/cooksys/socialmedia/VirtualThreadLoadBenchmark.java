@@ -0,0 +1,144 @@
+package com.cooksys.socialmedia;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the users, tweets, validation and hashtag endpoints over real HTTP with many concurrent clients and
+ * reports throughput and p99 latency, once on Tomcat's platform thread pool and once on virtual threads. Both
+ * runs use the same Hikari pool size. Not part of the regular build; run it with
+ * {@code ./mvnw test -Dtest=VirtualThreadLoadBenchmark}.
+ */
+class VirtualThreadLoadBenchmark {
+
+    private static final int USERS = 50;
+    private static final int TWEETS = 500;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 10;
+    private static final int MEASURED_REQUESTS_PER_CLIENT = 50;
+
+    abstract static class MixedReadLoad {
+
+        @LocalServerPort
+        private int port;
+
+        private final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        @Test
+        void mixedReads() throws Exception {
+            seed();
+            runClients(WARMUP_REQUESTS_PER_CLIENT);
+
+            long start = System.nanoTime();
+            long[] latencies = runClients(MEASURED_REQUESTS_PER_CLIENT);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%s: %.0f requests/s, p50 %.1f ms, p99 %.1f ms over %d requests from %d clients%n",
+                    getClass().getSimpleName(), latencies.length / seconds,
+                    latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6,
+                    latencies.length, CLIENTS);
+        }
+
+        private long[] runClients(int requestsPerClient) throws Exception {
+            List<Future<long[]>> results = new ArrayList<>(CLIENTS);
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTS; c++) {
+                    int clientId = c;
+                    results.add(clients.submit(() -> {
+                        long[] latencies = new long[requestsPerClient];
+                        for (int i = 0; i < requestsPerClient; i++) {
+                            long start = System.nanoTime();
+                            get(pathFor(clientId + i * CLIENTS));
+                            latencies[i] = System.nanoTime() - start;
+                        }
+                        return latencies;
+                    }));
+                }
+            }
+            long[] all = new long[CLIENTS * requestsPerClient];
+            for (int c = 0; c < CLIENTS; c++) {
+                System.arraycopy(results.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+            }
+            return all;
+        }
+
+        private String pathFor(int request) {
+            int user = request % USERS;
+            return switch (request % 4) {
+                case 0 -> "/users/@user" + user;
+                case 1 -> "/tweets/" + (1 + request % TWEETS);
+                case 2 -> "/validate/username/exists/@user" + user;
+                default -> "/tags";
+            };
+        }
+
+        private void get(String path) throws Exception {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(path)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode(), path);
+        }
+
+        private void seed() throws Exception {
+            for (int u = 0; u < USERS; u++) {
+                postJson("/users", "{\"credentials\":{\"username\":\"user" + u + "\",\"password\":\"password\"},"
+                        + "\"profile\":{\"firstName\":\"First" + u + "\",\"lastName\":\"Last" + u + "\","
+                        + "\"email\":\"user" + u + "@example.com\"}}");
+            }
+            for (int t = 0; t < TWEETS; t++) {
+                postJson("/tweets", "{\"content\":\"Tweet number " + t + " about #topic" + (t % 20) + "\","
+                        + "\"credentials\":{\"username\":\"user" + (t % USERS) + "\",\"password\":\"password\"}}");
+            }
+        }
+
+        private void postJson(String path, String body) throws Exception {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(path))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode(), path);
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.datasource.url=jdbc:h2:mem:platform-threads;DB_CLOSE_DELAY=-1",
+            "socialmedia.reactive.enabled=false",
+            "spring.jpa.properties.hibernate.cache.region_prefix=platform-threads",
+            "spring.threads.virtual.enabled=false"
+    })
+    class PlatformThreads extends MixedReadLoad {
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1",
+            "socialmedia.reactive.enabled=false",
+            "spring.jpa.properties.hibernate.cache.region_prefix=virtual-threads",
+            "spring.threads.virtual.enabled=true"
+    })
+    class VirtualThreads extends MixedReadLoad {
+    }
+}
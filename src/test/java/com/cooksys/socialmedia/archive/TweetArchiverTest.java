@@ -0,0 +1,124 @@
+package com.cooksys.socialmedia.archive;
+
+import com.cooksys.socialmedia.repositories.TweetRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archives a handful of tweets on a freshly migrated Postgres database and checks where they end up. Uses the
+ * same disposable database as {@code IndexUsageTest}:
+ * <pre>
+ * SOCIALMEDIA_EXPLAIN_DB_URL=jdbc:postgresql://localhost:5432/explain mvn test -Dtest=TweetArchiverTest
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "SOCIALMEDIA_EXPLAIN_DB_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${SOCIALMEDIA_EXPLAIN_DB_URL}",
+        "spring.datasource.username=${SOCIALMEDIA_EXPLAIN_DB_USERNAME:postgres}",
+        "spring.datasource.password=${SOCIALMEDIA_EXPLAIN_DB_PASSWORD:postgres}",
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.region_prefix=tweet-archiver",
+        "socialmedia.reactive.enabled=false",
+        "socialmedia.archive.enabled=true",
+        "socialmedia.archive.cron=-",
+        "socialmedia.archive.hot-retention=30d",
+        "socialmedia.archive.months-ahead=6",
+        "socialmedia.archive.batch-size=2"
+})
+class TweetArchiverTest {
+
+    @TestConfiguration
+    static class CleanDatabaseConfig {
+
+        @Bean
+        FlywayMigrationStrategy cleanMigrateStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private TweetArchiver tweetArchiver;
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesDeletedAndOldTweetsToTheArchiveAndDropsEmptiedMonths() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO user_table (id, version, joined, deleted, username, password, email)"
+                + " VALUES (1, 0, ?, false, 'author', 'pw', 'author@example.com')", Timestamp.valueOf(now.minusYears(1)));
+        insertTweet(1, now, false);
+        insertTweet(2, now.minusHours(1), true);
+        insertTweet(3, now.minusDays(10), false);
+        insertTweet(4, now.minusDays(45), false);
+        insertTweet(5, now.minusDays(80), false);
+        insertTweet(6, now.minusDays(200), false);
+        insertTweet(7, now.minusDays(200), true);
+
+        tweetArchiver.run();
+
+        assertThat(ids("tweet_hot")).containsExactly(1L, 3L);
+        assertThat(ids("tweet_archive")).containsExactly(2L, 4L, 5L, 6L, 7L);
+        assertThat(tweetRepository.findById(5L)).isPresent();
+
+        LocalDateTime cutoff = now.minusDays(30);
+        List<YearMonth> months = hotMonths();
+        assertThat(months).allMatch(month -> month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff));
+        assertThat(months).contains(YearMonth.now().plusMonths(6));
+    }
+
+    @Test
+    void queriesBoundedOnPostedSkipEarlierMonths() {
+        tweetArchiver.createUpcomingPartitions();
+        YearMonth current = YearMonth.now();
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM tweet WHERE archived = false AND deleted = false AND posted >= '"
+                        + current.atDay(1) + "' ORDER BY posted DESC", String.class));
+
+        assertThat(plan).contains(TweetArchiver.partitionName(current)).doesNotContain("tweet_archive");
+        for (YearMonth month : hotMonths()) {
+            if (month.isBefore(current)) {
+                assertThat(plan).doesNotContain(TweetArchiver.partitionName(month));
+            }
+        }
+    }
+
+    private void insertTweet(long id, LocalDateTime posted, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO tweet (id, version, author_id, posted, deleted, content) VALUES (?, 0, 1, ?, ?, ?)",
+                id, Timestamp.valueOf(posted), deleted, "tweet " + id);
+    }
+
+    private List<Long> ids(String partition) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + partition + " ORDER BY id", Long.class);
+    }
+
+    private List<YearMonth> hotMonths() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = 'tweet_hot'::regclass AND c.relname <> 'tweet_hot_default'", String.class)
+                .stream()
+                .map(name -> YearMonth.of(Integer.parseInt(name.substring(11, 15)), Integer.parseInt(name.substring(16))))
+                .toList();
+    }
+}
@@ -0,0 +1,139 @@
+package com.cooksys.socialmedia.cache;
+
+import com.cooksys.socialmedia.exceptions.NotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = callConcurrently(singleFlight, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return new Object();
+        }, release);
+
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(CALLERS).allSatisfy(result -> assertThat(result).isSameAs(results.get(0)));
+        assertThat(calls("leader")).isEqualTo(1);
+        assertThat(calls("joined")).isEqualTo(CALLERS - 1);
+
+        // Nothing is kept without a window
+        singleFlight.load("getTweetById", 1L, loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void waitersGetTheLeadersExceptionAndTheNextCallerRetries() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = callConcurrently(singleFlight, () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new NotFoundException("Tweet not found.");
+        }, release);
+
+        assertThat(loads).hasValue(1);
+        assertThat(results).allSatisfy(result -> assertThat(result).isInstanceOf(NotFoundException.class));
+        assertThat(singleFlight.load("getTweetById", 1L, () -> "found")).isEqualTo("found");
+    }
+
+    @Test
+    void resultsAreReusedWithinTheWindowOnly() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, true, Duration.ofMillis(200));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(singleFlight.load("getLikesById", 1L, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.load("getLikesById", 1L, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.load("getRepostsById", 1L, loads::incrementAndGet)).isEqualTo(2);
+        assertThat(singleFlight.load("getLikesById", 2L, loads::incrementAndGet)).isEqualTo(3);
+
+        Thread.sleep(300);
+        assertThat(singleFlight.load("getLikesById", 1L, loads::incrementAndGet)).isEqualTo(4);
+        assertThat(meterRegistry.get("socialmedia.singleflight.calls")
+                .tags("operation", "getLikesById", "outcome", "window").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLayerAlwaysLoads() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, false, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load("getTweetById", 1L, loads::incrementAndGet);
+        singleFlight.load("getTweetById", 1L, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+        assertThat(calls("bypass")).isEqualTo(2);
+    }
+
+    // Starts every caller, waits until all but the leader are parked on the flight, then lets the leader finish.
+    // Returns each caller's result, or the exception it got.
+    private List<Object> callConcurrently(SingleFlight singleFlight, Supplier<Object> loader,
+                                          CountDownLatch release) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        return singleFlight.load("getTweetById", 1L, loader);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (calls("leader") + calls("joined") < CALLERS && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private double calls(String outcome) {
+        Counter counter = meterRegistry.find("socialmedia.singleflight.calls")
+                .tags("operation", "getTweetById", "outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.cooksys.socialmedia.cache;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the bytes-per-second throughput of GET /tweets with and without the pre-serialized tweet
+ * cache against an in-memory database. Not part of the regular build; run it with
+ * {@code ./mvnw test -Dtest=TweetJsonCacheBenchmark}.
+ */
+class TweetJsonCacheBenchmark {
+
+    private static final int USERS = 50;
+    private static final int TWEETS = 2000;
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int MEASURED_REQUESTS = 100;
+
+    abstract static class GetTweetsThroughput {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void getTweets() throws Exception {
+            seed();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                requestTweets();
+            }
+
+            long bytes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_REQUESTS; i++) {
+                bytes += requestTweets();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("GET /tweets %s: %.1f MB/s, %.1f requests/s, %d bytes per response%n",
+                    getClass().getSimpleName(), bytes / seconds / 1e6, MEASURED_REQUESTS / seconds,
+                    bytes / MEASURED_REQUESTS);
+        }
+
+        private int requestTweets() throws Exception {
+            return mockMvc.perform(get("/tweets"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray().length;
+        }
+
+        private void seed() throws Exception {
+            for (int u = 0; u < USERS; u++) {
+                postJson("/users", "{\"credentials\":{\"username\":\"user" + u + "\",\"password\":\"password\"},"
+                        + "\"profile\":{\"firstName\":\"First" + u + "\",\"lastName\":\"Last" + u + "\","
+                        + "\"email\":\"user" + u + "@example.com\"}}");
+            }
+            for (int t = 0; t < TWEETS; t++) {
+                String tweet = "{\"content\":\"Tweet number " + t + " about #topic" + (t % 20) + " for @user" + ((t + 1) % USERS)
+                        + "\",\"credentials\":{\"username\":\"user" + (t % USERS) + "\",\"password\":\"password\"}}";
+                postJson(t > 0 && t % 4 == 0 ? "/tweets/" + t + "/reply" : "/tweets", tweet);
+            }
+        }
+
+        private void postJson(String path, String body) throws Exception {
+            mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:json-cache-enabled;DB_CLOSE_DELAY=-1",
+            "socialmedia.reactive.enabled=false",
+            "socialmedia.tweets.json-cache.enabled=true"
+    })
+    @AutoConfigureMockMvc
+    class WithCache extends GetTweetsThroughput {
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.datasource.url=jdbc:h2:mem:json-cache-disabled;DB_CLOSE_DELAY=-1",
+            "socialmedia.reactive.enabled=false",
+            "socialmedia.tweets.json-cache.enabled=false"
+    })
+    @AutoConfigureMockMvc
+    class WithoutCache extends GetTweetsThroughput {
+    }
+}
@@ -0,0 +1,88 @@
+package com.cooksys.socialmedia.config;
+
+import com.cooksys.socialmedia.dtos.ProfileDto;
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.dtos.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares serialization time and payload size of a 100-tweet feed in JSON, CBOR and Smile.
+ * Not part of the regular build; run it with {@code ./mvnw test -Dtest=BinaryFormatBenchmark}.
+ */
+class BinaryFormatBenchmark {
+
+    private static final int FEED_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Test
+    void serializeFeed() throws Exception {
+        List<TweetResponseDto> feed = feed();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("JSON", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("CBOR", Jackson2ObjectMapperBuilder.cbor().build());
+        mappers.put("Smile", Jackson2ObjectMapperBuilder.smile().build());
+
+        ObjectMapper json = mappers.get("JSON");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(feed);
+            assertEquals(json.readTree(json.writeValueAsBytes(feed)), json.valueToTree(mapper.readTree(payload)));
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                mapper.writeValueAsBytes(feed);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                mapper.writeValueAsBytes(feed);
+            }
+            double microsPerFeed = (System.nanoTime() - start) / 1e3 / MEASURED_ITERATIONS;
+
+            System.out.printf("%-5s %8.1f us per %d-tweet feed, %7d bytes%n",
+                    entry.getKey(), microsPerFeed, FEED_SIZE, payload.length);
+        }
+    }
+
+    private List<TweetResponseDto> feed() {
+        List<TweetResponseDto> feed = new ArrayList<>();
+        for (int i = 0; i < FEED_SIZE; i++) {
+            TweetResponseDto tweet = tweet(i);
+            if (i % 3 == 1) {
+                tweet.setInReplyTo(tweet(i + 1000));
+            } else if (i % 6 == 2) {
+                tweet.setContent(null);
+                tweet.setRepostOf(tweet(i + 2000));
+            }
+            feed.add(tweet);
+        }
+        return feed;
+    }
+
+    private TweetResponseDto tweet(int id) {
+        ProfileDto profile = new ProfileDto();
+        profile.setFirstName("First" + id % 20);
+        profile.setLastName("Last" + id % 20);
+        profile.setEmail("user" + id % 20 + "@example.com");
+        UserResponseDto author = new UserResponseDto();
+        author.setUsername("user" + id % 20);
+        author.setJoined(new Timestamp(1_700_000_000_000L + id % 20));
+        author.setProfile(profile);
+
+        TweetResponseDto tweet = new TweetResponseDto();
+        tweet.setId((long) id);
+        tweet.setAuthor(author);
+        tweet.setPosted(new Timestamp(1_710_000_000_000L + id * 1000L));
+        tweet.setContent("Tweet " + id + " talking about #topic" + id % 7 + " with @user" + (id + 1) % 20);
+        return tweet;
+    }
+}
@@ -0,0 +1,113 @@
+package com.cooksys.socialmedia.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two in-memory databases standing in for a primary and a lagging replica. The replica
+ * only sees the primary's rows when the test copies them across.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "socialmedia.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "socialmedia.datasource.replica.username=sa",
+        "socialmedia.datasource.replica.password=",
+        "spring.jpa.properties.hibernate.cache.region_prefix=routing",
+        "socialmedia.reactive.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Test
+    void readsGoToReplicaExceptRightAfterOwnWrite() throws Exception {
+        replicate();
+
+        Cookie pin = mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"credentials\":{\"username\":\"alice\",\"password\":\"pw\"},"
+                                + "\"profile\":{\"firstName\":\"alice\",\"email\":\"alice@example.com\"}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesInterceptor.COOKIE_NAME);
+        assertNotNull(pin);
+
+        // Another client reads the replica, which has not caught up yet
+        mockMvc.perform(get("/validate/username/exists/@alice"))
+                .andExpect(content().string("false"));
+
+        // The writer is pinned to the primary and sees its own write
+        mockMvc.perform(get("/validate/username/exists/@alice").cookie(pin))
+                .andExpect(content().string("true"));
+
+        // An expired window no longer pins, so that reader is back on the lagging replica
+        mockMvc.perform(get("/validate/username/exists/@alice")
+                        .cookie(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, "0")))
+                .andExpect(content().string("false"));
+
+        // Nor does a window further out than this server would ever hand out
+        mockMvc.perform(get("/validate/username/exists/@alice")
+                        .cookie(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, "9999999999999")))
+                .andExpect(content().string("false"));
+
+        replicate();
+        mockMvc.perform(get("/validate/username/exists/@alice"))
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    void pinnedWriterGetsItsOwnChangeRatherThanTheCachedUser() throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"credentials\":{\"username\":\"bob\",\"password\":\"pw\"},"
+                                + "\"profile\":{\"firstName\":\"bob\",\"email\":\"bob@example.com\"}}"))
+                .andExpect(status().isOk());
+        replicate();
+        mockMvc.perform(get("/users/@bob")).andExpect(jsonPath("$.profile.firstName").value("bob"));
+
+        Cookie pin = mockMvc.perform(patch("/users/@bob").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"credentials\":{\"username\":\"bob\",\"password\":\"pw\"},"
+                                + "\"profile\":{\"firstName\":\"Robert\"}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesInterceptor.COOKIE_NAME);
+
+        mockMvc.perform(get("/users/@bob").cookie(pin)).andExpect(jsonPath("$.profile.firstName").value("Robert"));
+    }
+
+    // Copies the primary's schema and rows over the replica, standing in for replication catching up
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : script) {
+            replica.execute(statement);
+        }
+    }
+}
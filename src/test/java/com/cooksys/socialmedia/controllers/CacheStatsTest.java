@@ -0,0 +1,48 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CacheStatsTest extends IntegrationTest {
+
+    @Test
+    void hashtagLookupsByLabelUseTheNaturalIdRegion() throws Exception {
+        createUser("nadia");
+        postTweet("nadia", "counting #naturalid");
+
+        // Creating the hashtag put its label in the region, so both lookups are answered from it
+        Map<String, Object> before = region("hashtag-label");
+        mockMvc.perform(get("/validate/tag/exists/naturalid")).andExpect(content().string("true"));
+        mockMvc.perform(get("/validate/tag/exists/naturalid")).andExpect(content().string("true"));
+        Map<String, Object> after = region("hashtag-label");
+
+        assertThat(count(after, "hitCount")).isEqualTo(count(before, "hitCount") + 2);
+        assertThat(count(after, "missCount")).isEqualTo(count(before, "missCount"));
+
+        // A label that doesn't exist misses
+        mockMvc.perform(get("/validate/tag/exists/nosuchtag")).andExpect(content().string("false"));
+        assertThat(count(region("hashtag-label"), "missCount")).isEqualTo(count(after, "missCount") + 1);
+    }
+
+    private Map<String, Object> region(String suffix) throws Exception {
+        String response = mockMvc.perform(get("/cache/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Map<String, Object>> regions = JsonPath.read(response, "$[?(@.region =~ /.*" + suffix + "$/)]");
+        assertThat(regions).hasSize(1);
+        return regions.get(0);
+    }
+
+    private static long count(Map<String, Object> region, String name) {
+        return ((Number) region.get(name)).longValue();
+    }
+}
@@ -0,0 +1,83 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.cooksys.socialmedia.mappers.HashtagMapper;
+import com.cooksys.socialmedia.mappers.TweetMapper;
+import com.cooksys.socialmedia.mappers.UserMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "socialmedia.test.database=conditional-get")
+class ConditionalGetTest extends IntegrationTest {
+
+    @SpyBean
+    private TweetMapper tweetMapper;
+
+    @SpyBean
+    private UserMapper userMapper;
+
+    @SpyBean
+    private HashtagMapper hashtagMapper;
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredBeforeAnythingIsMapped() throws Exception {
+        createUser("etag");
+        long id = postTweet("etag", "cached #etag");
+        deliverEvents();
+
+        for (String path : List.of("/tweets", "/tweets/" + id, "/users", "/users/@etag", "/users/@etag/tweets",
+                "/tags", "/tags/etag")) {
+            String eTag = eTag(path);
+            clearInvocations(tweetMapper, userMapper, hashtagMapper);
+
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+            verifyNoInteractions(tweetMapper, userMapper, hashtagMapper);
+        }
+    }
+
+    @Test
+    void listETagsMoveOnceTheChangeIsDelivered() throws Exception {
+        createUser("mover");
+        deliverEvents();
+        String tweets = eTag("/tweets");
+        String users = eTag("/users");
+        String tags = eTag("/tags");
+
+        postTweet("mover", "moving #on");
+        deliverEvents();
+        mockMvc.perform(get("/tweets").header(HttpHeaders.IF_NONE_MATCH, tweets)).andExpect(status().isOk());
+        mockMvc.perform(get("/tags").header(HttpHeaders.IF_NONE_MATCH, tags)).andExpect(status().isOk());
+        mockMvc.perform(get("/users").header(HttpHeaders.IF_NONE_MATCH, users)).andExpect(status().isNotModified());
+
+        mockMvc.perform(patch("/users/@mover").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"credentials\":" + credentials("mover") + ",\"profile\":{\"firstName\":\"Mo\"}}"))
+                .andExpect(status().isOk());
+        deliverEvents();
+        mockMvc.perform(get("/users").header(HttpHeaders.IF_NONE_MATCH, users)).andExpect(status().isOk());
+    }
+
+    @Test
+    void clientInItsReadYourWritesWindowIsNeverToldAListingIsUnchanged() throws Exception {
+        String tweets = eTag("/tweets");
+        Cookie pinned = new Cookie("socialmedia-primary-until", Long.toString(System.currentTimeMillis() + 2_000));
+
+        mockMvc.perform(get("/tweets").cookie(pinned).header(HttpHeaders.IF_NONE_MATCH, tweets))
+                .andExpect(status().isOk());
+    }
+
+    private String eTag(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,170 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.cooksys.socialmedia.cache.DtoCacheNames;
+import com.cooksys.socialmedia.cache.VersionedDtoCache;
+import com.cooksys.socialmedia.dtos.TweetResponseDto;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.mappers.TweetMapper;
+import com.cooksys.socialmedia.repositories.UserRepository;
+import com.cooksys.socialmedia.services.ETagService;
+import com.cooksys.socialmedia.services.TweetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The user and tweet DTO caches: what evicts them, that an entry is never served under a newer ETag, and that
+ * concurrent misses on one key load it once.
+ */
+@TestPropertySource(properties = "socialmedia.test.database=dto-cache")
+@Import(JdbcCaptureConfig.class)
+class DtoCacheTest extends IntegrationTest {
+
+    private static final int READERS = 8;
+
+    @Autowired
+    private TweetService tweetService;
+
+    @Autowired
+    private ETagService eTagService;
+
+    @Autowired
+    private VersionedDtoCache dtoCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcCapture jdbcCapture;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private TweetMapper tweetMapper;
+
+    @Test
+    void userAndTweetDtosAreEvictedOnUpdateDeleteAndReactivation() throws Exception {
+        createUser("uma");
+        long tweet = postTweet("uma", "hello");
+        mockMvc.perform(get("/users/@uma")).andExpect(jsonPath("$.profile.firstName").doesNotExist());
+        mockMvc.perform(get("/tweets/" + tweet)).andExpect(jsonPath("$.author.profile.firstName").doesNotExist());
+
+        mockMvc.perform(patch("/users/@uma").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"credentials\":" + credentials("uma") + ",\"profile\":{\"firstName\":\"Uma\"}}"))
+                .andExpect(status().isOk());
+        // Evicted on commit; no outbox delivery is needed
+        mockMvc.perform(get("/users/@uma")).andExpect(jsonPath("$.profile.firstName").value("Uma"));
+        mockMvc.perform(get("/tweets/" + tweet)).andExpect(jsonPath("$.author.profile.firstName").value("Uma"));
+
+        // GET /tweets/{id} still serves deleted tweets, so the eviction is checked on the cache itself
+        assertThat(tweetCache().get(tweet)).isNotNull();
+        mockMvc.perform(delete("/tweets/" + tweet).contentType(MediaType.APPLICATION_JSON).content(credentials("uma")))
+                .andExpect(status().isOk());
+        assertThat(tweetCache().get(tweet)).isNull();
+
+        mockMvc.perform(delete("/users/@uma").contentType(MediaType.APPLICATION_JSON).content(credentials("uma")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/@uma")).andExpect(status().isNotFound());
+
+        createUser("uma");
+        mockMvc.perform(get("/users/@uma"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile.firstName").value("Uma"));
+    }
+
+    @Test
+    void aChangeThisInstanceWasNotToldAboutIsServedWithItsETag() throws Exception {
+        createUser("wes");
+        long tweet = postTweet("wes", "hello");
+        String userETag = mockMvc.perform(get("/users/@wes")).andReturn().getResponse().getHeader("ETag");
+        String tweetETag = mockMvc.perform(get("/tweets/" + tweet)).andReturn().getResponse().getHeader("ETag");
+
+        // As another instance would: the row changes but nothing here is evicted
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findByCredentials_Username("wes").orElseThrow().getProfile().setFirstName("Wes"));
+        assertThat(tweetCache().get(tweet)).isNotNull();
+
+        mockMvc.perform(get("/users/@wes").header("If-None-Match", userETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile.firstName").value("Wes"));
+        mockMvc.perform(get("/tweets/" + tweet).header("If-None-Match", tweetETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.profile.firstName").value("Wes"));
+    }
+
+    @Test
+    void concurrentMissesOnOneTweetLoadItOnce() throws Exception {
+        createUser("vic");
+        long warmUp = postTweet("vic", "first");
+        long tweet = postTweet("vic", "second");
+
+        jdbcCapture.reset();
+        tweetService.getTweetById(warmUp);
+        int statementsPerLoad = jdbcCapture.statements().size();
+        assertThat(statementsPerLoad).isPositive();
+
+        // Mapping is slowed down so every reader arrives while the first is still loading
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return invocation.callRealMethod();
+        }).when(tweetMapper).entityToDto(any(Tweet.class));
+        String eTag = eTagService.getTweetETag(tweet);
+        clearInvocations(tweetMapper);
+        jdbcCapture.reset();
+
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TweetResponseDto>> reads = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                reads.add(readers.submit(() -> {
+                    start.await();
+                    return dtoCache.get(DtoCacheNames.TWEETS, tweet, eTag, () -> tweetService.getTweetById(tweet));
+                }));
+            }
+            start.countDown();
+            for (Future<TweetResponseDto> read : reads) {
+                assertThat(read.get().getContent()).isEqualTo("second");
+            }
+        } finally {
+            readers.shutdown();
+        }
+
+        verify(tweetMapper, times(1)).entityToDto(any(Tweet.class));
+        assertThat(jdbcCapture.statements()).hasSize(statementsPerLoad);
+    }
+
+    private Cache tweetCache() {
+        return cacheManager.getCache(DtoCacheNames.TWEETS);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cooksys.socialmedia.controllers;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement and every row read through a datasource-proxy wrapped DataSource
+ * since the last {@link #reset()}.
+ */
+class JdbcCapture implements QueryExecutionListener, MethodExecutionListener {
+
+    private final List<String> statements = new ArrayList<>();
+    private long rows;
+
+    synchronized void reset() {
+        statements.clear();
+        rows = 0;
+    }
+
+    synchronized List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    synchronized long rows() {
+        return rows;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            statements.add(queryInfo.getQuery());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public synchronized void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            rows++;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.cooksys.socialmedia.controllers;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource so a {@link JdbcCapture} bean sees every statement. Tests that count
+ * queries import it.
+ */
+@TestConfiguration
+class JdbcCaptureConfig {
+
+    @Bean
+    JdbcCapture jdbcCapture() {
+        return new JdbcCapture();
+    }
+
+    @Bean
+    static BeanPostProcessor capturingDataSourcePostProcessor(ObjectProvider<JdbcCapture> capture) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    JdbcCapture listener = capture.getObject();
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .listener(listener)
+                            .methodListener(listener)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
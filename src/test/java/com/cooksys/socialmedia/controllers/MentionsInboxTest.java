@@ -0,0 +1,109 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MentionsInboxTest extends IntegrationTest {
+
+    private static final Pattern NEXT = Pattern.compile("<(.+)>; rel=\"next\"");
+
+    @Test
+    void pagesWalkTheMentionsNewestFirst() throws Exception {
+        createUser("paula");
+        createUser("quinn");
+        List<String> expected = new ArrayList<>();
+        // One more than the test page size, so the deprecated unpaged form has to return more than a page
+        for (int i = 0; i < 6; i++) {
+            postTweet("quinn", "mention " + i + " @paula @paula");
+            expected.add(0, "mention " + i + " @paula @paula");
+        }
+        Object gone = postTweet("quinn", "deleted @paula");
+        mockMvc.perform(delete("/tweets/" + gone).contentType(MediaType.APPLICATION_JSON).content(credentials("quinn")))
+                .andExpect(status().isOk());
+        postTweet("quinn", "not a mention");
+
+        List<String> seen = new ArrayList<>();
+        String url = "/users/@paula/mentions?limit=2";
+        int pages = 0;
+        while (url != null) {
+            MvcResult page = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+            seen.addAll(JsonPath.read(page.getResponse().getContentAsString(), "$[*].content"));
+            String link = page.getResponse().getHeader(HttpHeaders.LINK);
+            Matcher next = link == null ? null : NEXT.matcher(link);
+            url = next != null && next.matches() ? next.group(1) : null;
+            pages++;
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(3);
+        mockMvc.perform(get("/users/@paula/mentions"))
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+        mockMvc.perform(get("/users/@paula/mentions?limit=5"))
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(header().doesNotExist("Deprecation"));
+    }
+
+    @Test
+    void unreadCountFollowsMentionsUntilMarkedRead() throws Exception {
+        createUser("rory");
+        createUser("sage");
+        assertUnread("rory", 0);
+
+        postTweet("sage", "hi @rory @rory");
+        Object reply = JsonPath.read(mockMvc.perform(post("/tweets/" + postTweet("rory", "hello") + "/reply")
+                        .contentType(MediaType.APPLICATION_JSON).content(tweet("sage", "back at you @rory")))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), "$.id");
+        assertUnread("rory", 2);
+
+        mockMvc.perform(delete("/tweets/" + reply).contentType(MediaType.APPLICATION_JSON).content(credentials("sage")))
+                .andExpect(status().isOk());
+        assertUnread("rory", 1);
+
+        mockMvc.perform(post("/users/@rory/mentions/read").contentType(MediaType.APPLICATION_JSON).content(credentials("sage")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/users/@rory/mentions/read").contentType(MediaType.APPLICATION_JSON).content(credentials("rory")))
+                .andExpect(status().isOk());
+        assertUnread("rory", 0);
+
+        postTweet("sage", "again @rory");
+        assertUnread("rory", 1);
+    }
+
+    @Test
+    void badPagingRequestsAreRejected() throws Exception {
+        createUser("tess");
+
+        mockMvc.perform(get("/users/@tess/mentions").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/@tess/mentions").param("limit", "11"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/@nobody/mentions/unread"))
+                .andExpect(status().isNotFound());
+    }
+
+    private void assertUnread(String username, int unread) throws Exception {
+        mockMvc.perform(get("/users/@" + username + "/mentions/unread"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unread").value(unread));
+    }
+}
@@ -0,0 +1,50 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MultiGetTest extends IntegrationTest {
+
+    @Test
+    void tweetsComeBackInRequestOrderWithMissesAsNull() throws Exception {
+        createUser("carol");
+        long first = postTweet("carol", "first");
+        long second = postTweet("carol", "second");
+        long gone = postTweet("carol", "soon gone");
+        mockMvc.perform(delete("/tweets/" + gone).contentType(MediaType.APPLICATION_JSON).content(credentials("carol")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tweets").param("ids", second + "," + gone + ",999999," + first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].content").value("second"))
+                .andExpect(jsonPath("$[1]").value(nullValue()))
+                .andExpect(jsonPath("$[2]").value(nullValue()))
+                .andExpect(jsonPath("$[3].content").value("first"));
+
+        mockMvc.perform(get("/tweets").param("ids", "1,2,3,4,5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void usersComeBackInRequestOrderWithMissesAsNull() throws Exception {
+        createUser("dave");
+        createUser("erin");
+
+        mockMvc.perform(get("/users").param("usernames", "erin,nobody,dave,erin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].username").value("erin"))
+                .andExpect(jsonPath("$[1]").value(nullValue()))
+                .andExpect(jsonPath("$[2].username").value("dave"))
+                .andExpect(jsonPath("$[3].username").value("erin"));
+    }
+}
@@ -0,0 +1,204 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Holds every TweetController, UserController and HashtagController endpoint to a maximum number of SQL
+ * statements and rows read, so N+1 regressions fail the build. The dataset has a deep reply chain, a
+ * user with many followers and a tweet with many likes and reposts. Caches are off so the budgets
+ * measure the queries themselves.
+ * <p>
+ * When a change legitimately needs more queries, raise that endpoint's budget in {@link #budgets()}
+ * in the same commit.
+ */
+@TestPropertySource(properties = {
+        "socialmedia.test.database=query-budget",
+        "socialmedia.tweets.json-cache.enabled=false",
+        "spring.cache.type=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(JdbcCaptureConfig.class)
+class QueryBudgetTest extends IntegrationTest {
+
+    private static final int FANS = 40;
+    private static final int CHAIN_LENGTH = 30;
+    private static final int REPOSTS = 5;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+    record Budget(HttpMethod method, String path, String body, int maxStatements, int maxRows, String captureIdAs) {
+
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+    }
+
+    @Autowired
+    private JdbcCapture jdbcCapture;
+
+    private final Map<String, Object> ids = new HashMap<>();
+
+    @BeforeAll
+    void seed() throws Exception {
+        for (String user : new String[]{"hub", "author", "writer"}) {
+            createUser(user);
+        }
+        for (int f = 0; f < FANS; f++) {
+            createUser("fan" + f);
+            send(HttpMethod.POST, "/users/@hub/follow", credentials("fan" + f));
+        }
+        for (int f = 0; f < 10; f++) {
+            send(HttpMethod.POST, "/users/@fan" + f + "/follow", credentials("hub"));
+            send(HttpMethod.POST, "/tweets", tweet("fan" + f, "fan " + f + " says hi to @hub #budget"));
+        }
+
+        Object root = JsonPath.read(send(HttpMethod.POST, "/tweets", tweet("author", "root of it all #budget #chain @hub"))
+                .getResponse().getContentAsString(), "$.id");
+        ids.put("root", root);
+        Object parent = root;
+        for (int r = 0; r < CHAIN_LENGTH; r++) {
+            String replier = r % 2 == 0 ? "hub" : "author";
+            parent = JsonPath.read(send(HttpMethod.POST, "/tweets/" + parent + "/reply", tweet(replier, "reply " + r + " #chain @fan" + r))
+                    .getResponse().getContentAsString(), "$.id");
+            if (r == CHAIN_LENGTH / 2) {
+                ids.put("middle", parent);
+            }
+        }
+        ids.put("leaf", parent);
+        for (int f = 0; f < FANS; f++) {
+            send(HttpMethod.POST, "/tweets/" + root + "/like", credentials("fan" + f));
+        }
+        for (int f = 0; f < REPOSTS; f++) {
+            send(HttpMethod.POST, "/tweets/" + root + "/repost", credentials("fan" + f));
+        }
+    }
+
+    List<Budget> budgets() {
+        return List.of(
+                // TweetController
+                read("/tweets", 3, 48),
+                read("/tweets/{root}", 2, 2),
+                read("/tweets/{root}/mentions", 2, 2),
+                read("/tweets/{root}/reposts", 3, 11),
+                read("/tweets/{root}/likes", 2, 41),
+                // The same few statements wherever the tweet sits in the thread, however long the thread is
+                read("/tweets/{root}/context", 4, 61),
+                read("/tweets/{middle}/context", 4, 61),
+                read("/tweets/{leaf}/context", 4, 61),
+                read("/tweets/{root}/tags", 2, 3),
+                read("/tweets/{root}/replies", 2, 2),
+                read("/tweets?ids={middle},{root},999999,{root}", 1, 2),
+                // UserController
+                read("/users", 2, 44),
+                read("/users/@hub", 2, 2),
+                read("/users/@hub/feed", 6, 57),
+                read("/users/@hub/followers", 2, 93),
+                read("/users/@hub/following", 2, 11),
+                read("/users/@author/tweets", 7, 36),
+                // Deprecated unpaged form: grows with the user's mentions
+                read("/users/@hub/mentions", 3, 23),
+                // One mention past the page tells whether there is a next one
+                read("/users/@hub/mentions?limit=2", 3, 6),
+                read("/users?usernames=fan1,nobody,hub", 1, 2),
+                // HashtagController
+                read("/tags", 3, 4),
+                read("/tags/budget", 4, 12),
+                // Writes, run in order against the seeded data
+                write(HttpMethod.POST, "/users", user("newcomer"), 4, 43, null),
+                write(HttpMethod.POST, "/tweets", tweet("newcomer", "new here #budget #fresh #newer @hub @fan1"), 12, 4, "newTweet"),
+                write(HttpMethod.POST, "/tweets/{root}/reply", tweet("newcomer", "welcome #chain"), 6, 46, null),
+                write(HttpMethod.POST, "/tweets/{root}/repost", credentials("newcomer"), 4, 2, null),
+                write(HttpMethod.POST, "/tweets/{root}/like", credentials("newcomer"), 5, 2, null),
+                write(HttpMethod.POST, "/users/@hub/follow", credentials("newcomer"), 7, 62, null),
+                write(HttpMethod.POST, "/users/@hub/unfollow", credentials("newcomer"), 6, 146, null),
+                write(HttpMethod.PATCH, "/users/@newcomer", user("newcomer"), 2, 1, null),
+                write(HttpMethod.DELETE, "/tweets/{newTweet}", credentials("newcomer"), 4, 1, null),
+                write(HttpMethod.DELETE, "/users/@newcomer", credentials("newcomer"), 3, 44, null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgets")
+    void endpointStaysWithinQueryBudget(Budget budget) throws Exception {
+        String path = resolve(budget.path());
+        jdbcCapture.reset();
+        MvcResult result = send(budget.method(), path, budget.body());
+        List<String> statements = jdbcCapture.statements();
+        long rows = jdbcCapture.rows();
+
+        if (budget.captureIdAs() != null) {
+            ids.put(budget.captureIdAs(), JsonPath.read(result.getResponse().getContentAsString(), "$.id"));
+        }
+        if (statements.size() > budget.maxStatements() || rows > budget.maxRows()) {
+            fail(String.format("%s %s ran %d statements (budget %d) and read %d rows (budget %d):%n%s",
+                    budget.method(), path, statements.size(), budget.maxStatements(), rows, budget.maxRows(),
+                    numbered(statements)));
+        }
+    }
+
+    private Budget read(String path, int maxStatements, int maxRows) {
+        return new Budget(HttpMethod.GET, path, null, maxStatements, maxRows, null);
+    }
+
+    private Budget write(HttpMethod method, String path, String body, int maxStatements, int maxRows, String captureIdAs) {
+        return new Budget(method, path, body, maxStatements, maxRows, captureIdAs);
+    }
+
+    private MvcResult send(HttpMethod method, String path, String body) throws Exception {
+        MockHttpServletRequestBuilder builder = request(method, path);
+        if (body != null) {
+            builder.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        MvcResult result = mockMvc.perform(builder).andReturn();
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300,
+                method + " " + path + " returned " + status + ": " + result.getResponse().getContentAsString());
+        return result;
+    }
+
+    private String resolve(String path) {
+        Matcher matcher = PLACEHOLDER.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(resolved, String.valueOf(ids.get(matcher.group(1))));
+        }
+        return matcher.appendTail(resolved).toString();
+    }
+
+    private static String numbered(List<String> statements) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < statements.size(); i++) {
+            out.append(String.format("%3d. %s%n", i + 1, statements.get(i)));
+        }
+        return out.toString();
+    }
+
+    private static String user(String username) {
+        return "{\"credentials\":" + credentials(username) + ","
+                + "\"profile\":{\"firstName\":\"" + username + "\",\"email\":\"" + username + "@example.com\"}}";
+    }
+}
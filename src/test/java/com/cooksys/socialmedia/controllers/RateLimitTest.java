@@ -0,0 +1,79 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "socialmedia.test.database=rate-limit",
+        "socialmedia.rate-limit.enabled=true",
+        "socialmedia.rate-limit.capacity=3",
+        "socialmedia.rate-limit.refill-per-second=0.01",
+        "socialmedia.rate-limit.failed-auth.capacity=2",
+        "socialmedia.rate-limit.failed-auth.refill-per-second=0.01"
+})
+class RateLimitTest extends IntegrationTest {
+
+    @Test
+    void writesBeyondTheBurstAreRefusedWithRetryAfter() throws Exception {
+        createUser("frank");
+        createUser("grace");
+
+        attemptTweet("frank").andExpect(status().isOk());
+        attemptTweet("frank").andExpect(status().isOk());
+        mockMvc.perform(post("/users/@grace/follow").contentType(MediaType.APPLICATION_JSON).content(credentials("frank")))
+                .andExpect(status().isOk());
+
+        attemptTweet("frank")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.message").exists());
+        mockMvc.perform(post("/users/@grace/unfollow").contentType(MediaType.APPLICATION_JSON).content(credentials("frank")))
+                .andExpect(status().isTooManyRequests());
+
+        attemptTweet("grace").andExpect(status().isOk());
+        mockMvc.perform(get("/users/@frank/tweets")).andExpect(status().isOk());
+    }
+
+    @Test
+    void wrongPasswordsAreChargedToTheAddressNotTheUserNamed() throws Exception {
+        createUser("heidi");
+
+        attemptTweetFrom("10.0.0.1", "heidi", "guess").andExpect(status().isUnauthorized());
+        attemptTweetFrom("10.0.0.1", "heidi", "guess").andExpect(status().isUnauthorized());
+        attemptTweetFrom("10.0.0.1", "heidi", "guess")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+        // Even the right password waits out the address's bucket, or guessing would go on unlimited
+        attemptTweetFrom("10.0.0.1", "heidi", "pw").andExpect(status().isTooManyRequests());
+
+        // heidi's own bucket is untouched by the attempts above
+        attemptTweetFrom("10.0.0.2", "heidi", "pw").andExpect(status().isOk());
+        attemptTweetFrom("10.0.0.2", "heidi", "pw").andExpect(status().isOk());
+        attemptTweetFrom("10.0.0.2", "heidi", "pw").andExpect(status().isOk());
+        attemptTweetFrom("10.0.0.2", "heidi", "pw").andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions attemptTweetFrom(String address, String username, String password) throws Exception {
+        return mockMvc.perform(post("/tweets").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"content\":\"hello\",\"credentials\":{\"username\":\"" + username
+                        + "\",\"password\":\"" + password + "\"}}")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                }));
+    }
+
+    private ResultActions attemptTweet(String username) throws Exception {
+        return mockMvc.perform(post("/tweets").contentType(MediaType.APPLICATION_JSON).content(tweet(username, "hello")));
+    }
+}
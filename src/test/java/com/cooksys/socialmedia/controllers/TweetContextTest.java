@@ -0,0 +1,50 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TweetContextTest extends IntegrationTest {
+
+    @Test
+    void contextListsAncestorsNearestFirstAndRepliesDepthFirst() throws Exception {
+        createUser("thread");
+        long root = postTweet("thread", "root");
+        long parent = reply(root, "parent");
+        long target = reply(parent, "target");
+        long first = reply(target, "first");
+        long firstChild = reply(first, "first child");
+        long second = reply(target, "second");
+        long gone = reply(target, "gone");
+        reply(gone, "under gone");
+        long secondChild = reply(second, "second child");
+        reply(root, "sibling");
+        mockMvc.perform(delete("/tweets/" + gone).contentType(MediaType.APPLICATION_JSON).content(credentials("thread")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tweets/" + target + "/context"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.target.id").value(target))
+                .andExpect(jsonPath("$.before[*].id", contains((int) parent, (int) root)))
+                .andExpect(jsonPath("$.after[*].id", contains((int) first, (int) firstChild, (int) second, (int) secondChild)));
+        mockMvc.perform(get("/tweets/" + root + "/context"))
+                .andExpect(jsonPath("$.before", empty()));
+    }
+
+    private long reply(long to, String content) throws Exception {
+        String response = mockMvc.perform(post("/tweets/" + to + "/reply").contentType(MediaType.APPLICATION_JSON)
+                        .content(tweet("thread", content)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.id")).longValue();
+    }
+}
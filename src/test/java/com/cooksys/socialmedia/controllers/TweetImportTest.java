@@ -0,0 +1,123 @@
+package com.cooksys.socialmedia.controllers;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.cooksys.socialmedia.entities.Hashtag;
+import com.cooksys.socialmedia.repositories.HashtagRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "socialmedia.test.database=tweet-import",
+        "socialmedia.import.max-errors=5"
+})
+class TweetImportTest extends IntegrationTest {
+
+    @SpyBean
+    private HashtagRepository hashtagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void importsValidLinesAndReportsTheRest() throws Exception {
+        createUser("alice");
+        createUser("bob");
+
+        String ndjson = String.join("\n",
+                tweet("alice", "pw", "archived #imported @bob"),
+                "{not json",
+                tweet("alice", "wrong", "nope"),
+                "",
+                "{\"credentials\":{\"username\":\"bob\",\"password\":\"pw\"}}",
+                tweet("nobody", "pw", "who am I"),
+                tweet("bob", "pw", "also archived #imported #fresh"),
+                tweet("alice", "pw", "third #fresh"));
+
+        mockMvc.perform(post("/tweets/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(2, 3, 5, 6)))
+                .andExpect(jsonPath("$.errors[1].message").value("Credentials are not correct."))
+                .andExpect(jsonPath("$.errors[2].message").value("No content in the body."));
+
+        mockMvc.perform(get("/tags/imported")).andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/tags/fresh")).andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/users/@bob/mentions")).andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/users/@alice/tweets")).andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void chunkIsRetriedWhenAHashtagIsCreatedConcurrently() throws Exception {
+        createUser("carol");
+
+        // Another writer commits #race after the import has looked it up and found nothing. Spring Data's
+        // repository methods can't be called through to from a spy, so the lookup is repeated by hand.
+        TransactionTemplate otherWriter = new TransactionTemplate(transactionManager);
+        otherWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Collection<String> labels = invocation.getArgument(0);
+            List<Hashtag> found = entityManager.createQuery("select h from Hashtag h where h.label in :labels", Hashtag.class)
+                    .setParameter("labels", labels)
+                    .getResultList();
+            if (labels.contains("race") && raced.compareAndSet(false, true)) {
+                otherWriter.executeWithoutResult(status -> {
+                    Hashtag hashtag = new Hashtag();
+                    hashtag.setLabel("race");
+                    entityManager.persist(hashtag);
+                });
+            }
+            return found;
+        }).when(hashtagRepository).findByLabelIn(any());
+
+        mockMvc.perform(post("/tweets/import").contentType("application/x-ndjson").content(String.join("\n",
+                        tweet("carol", "pw", "first #race"),
+                        tweet("carol", "wrong", "rejected"),
+                        tweet("carol", "pw", "second #race"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(2)));
+
+        mockMvc.perform(get("/tags/race")).andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void onlyTheFirstErrorsAreListed() throws Exception {
+        String ndjson = String.join("\n", "{1", "{2", "{3", "{4", "{5", "{6", "{7");
+
+        mockMvc.perform(post("/tweets/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.failed").value(7))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(1, 2, 3, 4, 5)))
+                .andExpect(jsonPath("$.errorsOmitted").value(2));
+    }
+
+    private static String tweet(String username, String password, String content) {
+        return "{\"content\":\"" + content + "\",\"credentials\":{\"username\":\"" + username
+                + "\",\"password\":\"" + password + "\"}}";
+    }
+}
@@ -0,0 +1,85 @@
+package com.cooksys.socialmedia.controllers.reactive;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import reactor.netty.DisposableServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that every reactive read route answers exactly like its servlet counterpart, both for
+ * found resources and for not-found errors.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-parity;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-parity;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.jpa.properties.hibernate.cache.region_prefix=reactive-parity",
+        "socialmedia.reactive.enabled=true",
+        "socialmedia.reactive.port=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveReadParityTest {
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private DisposableServer reactiveReadServer;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    void seed() throws Exception {
+        for (String user : new String[]{"alice", "bob"}) {
+            post("/users", "{\"credentials\":{\"username\":\"" + user + "\",\"password\":\"pw\"},"
+                    + "\"profile\":{\"firstName\":\"" + user + "\",\"email\":\"" + user + "@example.com\"}}");
+        }
+        post("/tweets", "{\"content\":\"hello #java @bob\",\"credentials\":{\"username\":\"alice\",\"password\":\"pw\"}}");
+        post("/tweets/1/reply", "{\"content\":\"reply #java\",\"credentials\":{\"username\":\"bob\",\"password\":\"pw\"}}");
+        post("/tweets/2/reply", "{\"content\":\"reply again\",\"credentials\":{\"username\":\"alice\",\"password\":\"pw\"}}");
+        post("/tweets/3/repost", "{\"username\":\"bob\",\"password\":\"pw\"}");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/tweets", "/tweets/3", "/tweets/4", "/tweets/99",
+            "/users/@alice", "/users/@nobody",
+            "/users/@bob/tweets", "/users/@nobody/tweets",
+            "/tags/java", "/tags/nothing"
+    })
+    void reactiveRouteMatchesServletController(String path) throws Exception {
+        HttpResponse<String> servlet = get(servletPort, path);
+        HttpResponse<String> reactive = get(reactiveReadServer.port(), path);
+
+        assertEquals(servlet.statusCode(), reactive.statusCode(), path);
+        assertEquals(servlet.body(), reactive.body(), path);
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void post(String path, String body) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + servletPort + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), path + ": " + response.body());
+    }
+}
@@ -0,0 +1,81 @@
+package com.cooksys.socialmedia.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:generator;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.region_prefix=generator",
+        "socialmedia.reactive.enabled=false",
+        "socialmedia.generator.enabled=true",
+        "socialmedia.generator.users=300",
+        "socialmedia.generator.tweets=5000",
+        "socialmedia.generator.hashtags=100",
+        "socialmedia.generator.batch-size=500"
+})
+@AutoConfigureMockMvc
+class DataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Another test adds rows of its own, so counts stick to the generated id ranges
+    @Test
+    void loadsRequestedVolumes() {
+        assertThat(count("SELECT COUNT(*) FROM user_table WHERE id <= 300")).isEqualTo(300);
+        assertThat(count("SELECT COUNT(*) FROM tweet WHERE id <= 5000")).isEqualTo(5000);
+        assertThat(count("SELECT COUNT(*) FROM hashtag WHERE id <= 100")).isEqualTo(100);
+        assertThat(count("SELECT COUNT(*) FROM tweet WHERE in_reply_to_id IS NOT NULL")).isBetween(1000L, 1500L);
+        assertThat(count("SELECT COUNT(*) FROM tweet WHERE repost_of_id IS NOT NULL")).isBetween(350L, 650L);
+        assertThat(count("SELECT COUNT(*) FROM tweet_hashtags")).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM user_mentions")).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM followers_following")).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM user_likes")).isPositive();
+        assertThat(count("SELECT COUNT(*) FROM tweet child JOIN tweet parent ON child.in_reply_to_id = parent.id "
+                + "WHERE parent.id >= child.id")).isZero();
+    }
+
+    @Test
+    void authorshipAndFollowersArePowerLawDistributed() {
+        List<Long> tweetsPerAuthor = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM tweet GROUP BY author_id ORDER BY COUNT(*) DESC", Long.class);
+        assertThat(tweetsPerAuthor.get(0)).isGreaterThan(20 * tweetsPerAuthor.get(tweetsPerAuthor.size() / 2));
+
+        List<Long> followersPerUser = jdbcTemplate.queryForList(
+                "SELECT COUNT(*) FROM followers_following GROUP BY following_id ORDER BY COUNT(*) DESC", Long.class);
+        assertThat(followersPerUser.get(0)).isGreaterThan(10 * followersPerUser.get(followersPerUser.size() / 2));
+    }
+
+    @Test
+    void applicationKeepsWorkingOnGeneratedData() throws Exception {
+        mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"credentials":{"username":"newcomer","password":"pw"},"profile":{"email":"n@example.com"}}"""))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/tweets").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"content":"first #brandnew","credentials":{"username":"user1","password":"password"}}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(greaterThan(5000)));
+        mockMvc.perform(get("/users/@user1/feed")).andExpect(status().isOk());
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.cooksys.socialmedia.graph;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.cooksys.socialmedia.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FollowSuggesterTest extends IntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelRankingMatchesCountingEveryPath() {
+        Random random = new Random(7);
+        GraphSnapshot.Builder edges = new GraphSnapshot.Builder();
+        for (long user = 1; user <= 2000; user++) {
+            int following = user == 1 ? 1500 : random.nextInt(60);
+            for (int i = 0; i < following; i++) {
+                edges.add(user, 1 + random.nextInt(2000));
+            }
+        }
+        SocialGraph.State graph = new SocialGraph.State(edges.build());
+        long[] followees = graph.following(1);
+        assertThat(followees.length).isGreaterThan(FollowSuggester.SLICE);
+
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long followee : followees) {
+            for (long candidate : graph.following(followee)) {
+                if (candidate != 1 && !graph.isFollowing(1, candidate)) {
+                    expected.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        long[] best = expected.keySet().stream()
+                .sorted(Comparator.comparing((Long id) -> -expected.get(id)).thenComparing(id -> id))
+                .limit(50)
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertThat(FollowSuggester.rank(graph, 1, 50, pool)).containsExactly(best);
+            assertThat(FollowSuggester.rank(graph, 1, 5000, pool)).hasSize(expected.size());
+            assertThat(FollowSuggester.rank(graph, 2001, 50, pool)).isEmpty();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void suggestsWhatFolloweesFollowLeavingOutFollowedAndDeletedUsers() throws Exception {
+        for (String username : new String[]{"ann", "ben", "cat", "dan", "eve", "fay"}) {
+            createUser(username);
+        }
+        follow("ann", "ben");
+        follow("ann", "cat");
+        follow("ann", "dan");
+        follow("ben", "eve");
+        follow("ben", "fay");
+        follow("cat", "eve");
+        follow("cat", "dan");
+        follow("dan", "eve");
+        follow("dan", "ann");
+
+        mockMvc.perform(get("/users/@ann/suggestions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].username", contains("eve", "fay")));
+        mockMvc.perform(get("/users/@ann/suggestions").param("limit", "1"))
+                .andExpect(jsonPath("$[*].username", contains("eve")));
+
+        mockMvc.perform(delete("/users/@eve").contentType(MediaType.APPLICATION_JSON).content(credentials("eve")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users/@ann/suggestions").param("limit", "1"))
+                .andExpect(jsonPath("$[*].username", contains("fay")));
+
+        follow("ann", "fay");
+        mockMvc.perform(get("/users/@ann/suggestions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    void nothingIsRankedOrCachedUntilTheGraphHasLoaded() {
+        SocialGraph graph = new SocialGraph(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry());
+        FollowSuggester suggester = new FollowSuggester(graph, new SimpleMeterRegistry(), 1, 100, Duration.ofMinutes(10), 100);
+        try {
+            graph.recordFollow(9101, 9102);
+            graph.recordFollow(9102, 9103);
+            assertThatThrownBy(() -> suggester.suggestions(9101)).isInstanceOf(ServiceUnavailableException.class);
+
+            graph.load();
+            assertThat(suggester.suggestions(9101)).containsExactly(9103);
+        } finally {
+            suggester.shutdown();
+        }
+    }
+
+    @Test
+    void badRequestsAreRejected() throws Exception {
+        createUser("gus");
+
+        mockMvc.perform(get("/users/@gus/suggestions").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/@gus/suggestions").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/@nobody/suggestions"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,124 @@
+package com.cooksys.socialmedia.graph;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SocialGraphTest extends IntegrationTest {
+
+    @Autowired
+    private SocialGraph socialGraph;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void snapshotSortsAndDeduplicatesEdges() {
+        GraphSnapshot.Builder edges = new GraphSnapshot.Builder();
+        edges.add(3, 1);
+        edges.add(3, 9);
+        edges.add(3, 1);
+        edges.add(7, 3);
+        edges.add(1, 3);
+        GraphSnapshot snapshot = edges.build();
+
+        assertThat(snapshot.nodes()).isEqualTo(4);
+        assertThat(snapshot.edges()).isEqualTo(4);
+        assertThat(snapshot.following(3)).containsExactly(1, 9);
+        assertThat(snapshot.followers(3)).containsExactly(1, 7);
+        assertThat(snapshot.follows(7, 3)).isTrue();
+        assertThat(snapshot.follows(3, 7)).isFalse();
+        assertThat(snapshot.followerCount(9)).isEqualTo(1);
+        assertThat(snapshot.followingCount(9)).isZero();
+        assertThat(snapshot.following(42)).isEmpty();
+    }
+
+    @Test
+    void followsAndUnfollowsAreAppliedOnCommit() throws Exception {
+        createUser("ada");
+        createUser("bo");
+        createUser("cy");
+        long ada = id("ada");
+        long bo = id("bo");
+        long cy = id("cy");
+
+        follow("ada", "bo");
+        follow("ada", "cy");
+        follow("cy", "bo");
+        assertThat(socialGraph.isFollowing(ada, bo)).isTrue();
+        assertThat(socialGraph.isFollowing(bo, ada)).isFalse();
+        assertThat(socialGraph.following(ada)).containsExactly(bo, cy);
+        assertThat(socialGraph.followers(bo)).containsExactly(ada, cy);
+        assertThat(socialGraph.followerCount(bo)).isEqualTo(2);
+
+        mockMvc.perform(post("/users/@bo/unfollow").contentType(MediaType.APPLICATION_JSON).content(credentials("ada")))
+                .andExpect(status().isOk());
+        assertThat(socialGraph.isFollowing(ada, bo)).isFalse();
+        assertThat(socialGraph.followers(bo)).containsExactly(cy);
+        assertThat(socialGraph.followingCount(ada)).isEqualTo(1);
+
+        // A rejected follow leaves the graph alone
+        mockMvc.perform(post("/users/@cy/follow").contentType(MediaType.APPLICATION_JSON).content(credentials("cy")))
+                .andExpect(status().isBadRequest());
+        assertThat(socialGraph.isFollowing(cy, cy)).isFalse();
+
+        socialGraph.load();
+        assertThat(socialGraph.following(ada)).containsExactly(cy);
+        assertThat(socialGraph.followers(bo)).containsExactly(cy);
+    }
+
+    @Test
+    void compactionFoldsChangesIntoTheSnapshot() throws Exception {
+        createUser("dee");
+        createUser("eli");
+        long dee = id("dee");
+        long eli = id("eli");
+        follow("dee", "eli");
+        assertThat(overrides()).isPositive();
+
+        socialGraph.compact();
+        assertThat(overrides()).isZero();
+        assertThat(socialGraph.isFollowing(dee, eli)).isTrue();
+        assertThat(socialGraph.followers(eli)).containsExactly(dee);
+
+        follow("eli", "dee");
+        assertThat(socialGraph.following(eli)).containsExactly(dee);
+        assertThat(overrides()).isEqualTo(2);
+    }
+
+    @Test
+    void rolledBackChangesAreNotRecorded() {
+        transactionTemplate.executeWithoutResult(status -> {
+            socialGraph.recordFollow(9001, 9002);
+            status.setRollbackOnly();
+        });
+        assertThat(socialGraph.isFollowing(9001, 9002)).isFalse();
+
+        socialGraph.recordFollow(9001, 9002);
+        assertThat(socialGraph.isFollowing(9001, 9002)).isTrue();
+        socialGraph.recordUnfollow(9001, 9002);
+        assertThat(socialGraph.followers(9002)).isEmpty();
+    }
+
+    private double overrides() {
+        return meterRegistry.get("socialmedia.graph.overrides").gauge().value();
+    }
+
+    private long id(String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM user_table WHERE username = ?", Long.class, username);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cooksys.socialmedia.hashtags;
+
+import com.cooksys.socialmedia.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class HashtagLastUsedTrackerTest extends IntegrationTest {
+
+    @Autowired
+    private HashtagLastUsedTracker tracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void laterUsesReachTagsOnTheNextFlush() throws Exception {
+        createUser("tagger");
+        postTweet("tagger", "first #hot #cold");
+        deliverEvents();
+        tracker.flush();
+        long created = lastUsed("hot");
+        long untouched = lastUsed("cold");
+        Thread.sleep(20);
+
+        postTweet("tagger", "again #hot");
+        deliverEvents();
+        assertThat(lastUsed("hot")).isEqualTo(created);
+
+        tracker.flush();
+        assertThat(lastUsed("hot")).isGreaterThan(created);
+        assertThat(lastUsed("cold")).isEqualTo(untouched);
+    }
+
+    @Test
+    void flushNeverMovesLastUsedBackwards() throws Exception {
+        Timestamp future = Timestamp.from(Instant.now().plusSeconds(3600));
+        jdbcTemplate.update("INSERT INTO hashtag (id, label, first_used, last_used) VALUES (-1, 'ahead', ?, ?)", future, future);
+        createUser("early");
+
+        postTweet("early", "behind #ahead");
+        deliverEvents();
+        tracker.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_used FROM hashtag WHERE label = 'ahead'", Timestamp.class))
+                .isAfter(Timestamp.from(Instant.now().plusSeconds(1800)));
+    }
+
+    private long lastUsed(String label) throws Exception {
+        String tags = mockMvc.perform(get("/tags")).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        List<String> lastUsed = JsonPath.read(tags, "$[?(@.label == '" + label + "')].lastUsed");
+        return Instant.parse(lastUsed.get(0).replace("+00:00", "Z")).toEpochMilli();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cooksys.socialmedia.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.region_prefix=metrics",
+        "socialmedia.reactive.enabled=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsScrapeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapeExposesEndpointRepositorySingleFlightHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/tweets/99")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "handler=\"TweetController#getTweetById\",method=\"GET\",outcome=\"CLIENT_ERROR\",status=\"404\"")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString(
+                        "socialmedia_repository_rows_count{method=\"findById\",repository=\"TweetRepository\",}")))
+                .andExpect(content().string(containsString(
+                        "socialmedia_singleflight_calls_total{operation=\"getTweetById\",outcome=\"leader\",}")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hibernate_collections_fetches_total")))
+                .andExpect(content().string(containsString("hibernate_flushes_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_count{pool=\"primary\",}")));
+    }
+}
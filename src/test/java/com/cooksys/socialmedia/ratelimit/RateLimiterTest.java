@@ -0,0 +1,141 @@
+package com.cooksys.socialmedia.ratelimit;
+
+import com.cooksys.socialmedia.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void allowsABurstThenOneRequestPerRefillInterval() {
+        RateLimiter limiter = new RateLimiter(true, 3, 2, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice")).isZero();
+        }
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(SECOND / 2);
+        assertThat(limiter.tryAcquire("bob")).isZero();
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("alice")).isZero();
+        assertThat(limiter.tryAcquire("alice")).isEqualTo(SECOND / 2);
+
+        clock.addAndGet(10 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("alice")).isZero();
+        }
+        assertThat(limiter.tryAcquire("alice")).isPositive();
+    }
+
+    @Test
+    void refusalCarriesRetryAfterInWholeSeconds() {
+        RateLimiter limiter = new RateLimiter(true, 1, 0.4, 100, clock::get);
+        limiter.acquire("alice");
+
+        assertThatThrownBy(() -> limiter.acquire("alice"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+    }
+
+    @Test
+    void disabledLimiterAndMissingUsernamesAreNeverLimited() {
+        RateLimiter disabled = new RateLimiter(false, 1, 1, 100, clock::get);
+        RateLimiter enabled = new RateLimiter(true, 1, 1, 100, clock::get);
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire("alice");
+            enabled.acquire(null);
+        }
+        assertThat(enabled.buckets()).isZero();
+    }
+
+    @Test
+    void idleBucketsAreEvictedOnceTheMapIsFull() {
+        RateLimiter limiter = new RateLimiter(true, 5, 10, 101, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("user" + i);
+        }
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+        assertThat(limiter.buckets()).isEqualTo(101);
+
+        // Every bucket but the busy one has refilled by now
+        clock.addAndGet(SECOND / 10 + 1);
+        limiter.tryAcquire("newcomer");
+
+        assertThat(limiter.buckets()).isEqualTo(2);
+    }
+
+    /**
+     * Many threads hammer a few buckets while the clock advances. However the compare-and-sets interleave, a
+     * bucket that is never left idle grants exactly its burst plus what refilled in the elapsed time, once the
+     * remainder is drained at the final clock.
+     */
+    @Test
+    void concurrentRequestsNeverExceedTheBucket() throws Exception {
+        int capacity = 50;
+        int keys = 4;
+        int threads = 16;
+        int attemptsPerThread = 200_000;
+        RateLimiter limiter = new RateLimiter(true, capacity, 1000, 10, clock::get);
+        long start = clock.get();
+
+        AtomicLongArray granted = new AtomicLongArray(keys);
+        for (int key = 0; key < keys; key++) {
+            assertThat(limiter.tryAcquire("user" + key)).isZero();
+            granted.incrementAndGet(key);
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit((Callable<Void>) () -> {
+                    go.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int key = (thread + i) % keys;
+                        if (limiter.tryAcquire("user" + key) == 0) {
+                            granted.incrementAndGet(key);
+                        }
+                        if (i % 64 == 0) {
+                            clock.addAndGet(TimeUnit.MICROSECONDS.toNanos(10));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long refilled = (clock.get() - start) / TimeUnit.MILLISECONDS.toNanos(1);
+        assertThat(refilled).isGreaterThan(capacity);
+        for (int key = 0; key < keys; key++) {
+            while (limiter.tryAcquire("user" + key) == 0) {
+                granted.incrementAndGet(key);
+            }
+            assertThat(granted.get(key)).isEqualTo(capacity + refilled);
+        }
+    }
+}
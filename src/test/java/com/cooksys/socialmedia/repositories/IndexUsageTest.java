@@ -0,0 +1,337 @@
+package com.cooksys.socialmedia.repositories;
+
+import com.cooksys.socialmedia.entities.Hashtag;
+import com.cooksys.socialmedia.entities.Mention;
+import com.cooksys.socialmedia.entities.Tweet;
+import com.cooksys.socialmedia.entities.User;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query and lazy collection load against Postgres, then asks the planner how it
+ * would execute the SQL Hibernate sent, with the same parameters, and checks the plan goes through the
+ * index migrated for that access path. Aggregates over whole tables ({@code count}) and lookups in the
+ * three-row {@code change_counter} table are left out.
+ * <p>
+ * Needs a disposable Postgres database, which the test cleans, migrates and fills from the generator:
+ * <pre>
+ * SOCIALMEDIA_EXPLAIN_DB_URL=jdbc:postgresql://localhost:5432/explain mvn test -Dtest=IndexUsageTest
+ * </pre>
+ * {@code SOCIALMEDIA_EXPLAIN_DB_USERNAME} and {@code SOCIALMEDIA_EXPLAIN_DB_PASSWORD} default to postgres.
+ */
+@EnabledIfEnvironmentVariable(named = "SOCIALMEDIA_EXPLAIN_DB_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${SOCIALMEDIA_EXPLAIN_DB_URL}",
+        "spring.datasource.username=${SOCIALMEDIA_EXPLAIN_DB_USERNAME:postgres}",
+        "spring.datasource.password=${SOCIALMEDIA_EXPLAIN_DB_PASSWORD:postgres}",
+        "spring.flyway.enabled=true",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "socialmedia.reactive.enabled=false",
+        "spring.cache.type=none",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "socialmedia.generator.enabled=true",
+        "socialmedia.generator.users=5000",
+        "socialmedia.generator.tweets=100000",
+        "socialmedia.generator.hashtags=1000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTest {
+
+    // A user, tweet and hashtag from the middle of the popularity curve, so no access path returns most of a table
+    private static final long USER_ID = 500;
+    private static final String USERNAME = "user" + USER_ID;
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        FlywayMigrationStrategy cleanMigrateStrategy() {
+            return flyway -> {
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+
+        @Bean
+        CapturedQueries capturedQueries() {
+            return new CapturedQueries();
+        }
+
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor(ObjectProvider<CapturedQueries> captured) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(captured.getObject()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    record AccessPath(String name, String index, boolean wholeTable, Consumer<IndexUsageTest> query) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    record CapturedQuery(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    static class CapturedQueries implements QueryExecutionListener {
+
+        private final List<CapturedQuery> queries = new ArrayList<>();
+
+        synchronized void reset() {
+            queries.clear();
+        }
+
+        synchronized List<CapturedQuery> queries() {
+            return List.copyOf(queries);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = queryInfo.getParametersList();
+                queries.add(new CapturedQuery(queryInfo.getQuery(), parameters.isEmpty() ? List.of() : parameters.get(0)));
+            }
+        }
+    }
+
+    @Autowired
+    private TweetRepository tweetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HashtagRepository hashtagRepository;
+
+    @Autowired
+    private MentionRepository mentionRepository;
+
+    @Autowired
+    private MentionInboxRepository mentionInboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CapturedQueries capturedQueries;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    private long tweetId;
+    private long parentId;
+    private long replyId;
+    private long repostedId;
+    private long likedId;
+    private String label;
+    private Mention mention;
+
+    @BeforeAll
+    void analyzeAndPickFixtures() {
+        JdbcTemplate jdbc = new JdbcTemplate(primaryDataSource);
+        jdbc.execute("ANALYZE");
+        tweetId = jdbc.queryForObject("SELECT min(id) FROM tweet WHERE author_id = ?", Long.class, USER_ID);
+        parentId = jdbc.queryForObject("SELECT min(in_reply_to_id) FROM tweet", Long.class);
+        replyId = jdbc.queryForObject("SELECT min(id) FROM tweet WHERE in_reply_to_id IS NOT NULL", Long.class);
+        repostedId = jdbc.queryForObject("SELECT min(repost_of_id) FROM tweet", Long.class);
+        likedId = jdbc.queryForObject("SELECT min(tweet_id) FROM user_likes", Long.class);
+        label = jdbc.queryForObject("SELECT label FROM hashtag ORDER BY id OFFSET 100 LIMIT 1", String.class);
+        mention = jdbc.queryForObject("SELECT user_id, tweet_id, posted FROM user_mentions WHERE user_id = ?"
+                        + " ORDER BY posted DESC, tweet_id DESC LIMIT 1",
+                (rs, rowNum) -> {
+                    Mention m = new Mention();
+                    m.setUserId(rs.getLong("user_id"));
+                    m.setTweetId(rs.getLong("tweet_id"));
+                    m.setPosted(rs.getTimestamp("posted"));
+                    return m;
+                }, USER_ID);
+    }
+
+    Stream<AccessPath> accessPaths() {
+        return Stream.of(
+                path("TweetRepository.findById", "tweet_pkey", t -> t.tweetRepository.findById(t.tweetId)),
+                path("TweetRepository.findByIdIn", "tweet_pkey", t -> t.tweetRepository.findByIdIn(Set.of(t.tweetId, t.parentId))),
+                wholeTable("TweetRepository.findByDeletedFalse", "tweet_posted_idx", t -> t.tweetRepository.findByDeletedFalse()),
+                wholeTable("TweetRepository.findByDeletedFalseOrderByPostedDesc", "tweet_posted_idx",
+                        t -> t.tweetRepository.findByDeletedFalseOrderByPostedDesc()),
+                path("TweetRepository.findByAuthorAndDeletedFalseOrderByPostedDesc", "tweet_author_posted_idx",
+                        t -> t.tweetRepository.findByAuthorAndDeletedFalseOrderByPostedDesc(t.user())),
+                path("TweetRepository.findByHashtagsAndDeletedFalseOrderByPostedDesc", "tweet_hashtags_hashtag_idx",
+                        t -> t.tweetRepository.findByHashtagsAndDeletedFalseOrderByPostedDesc(t.hashtag())),
+                path("TweetRepository.findByInReplyToAndInReplyToIsNotNull", "tweet_in_reply_to_idx",
+                        t -> t.tweetRepository.findByInReplyToAndInReplyToIsNotNull(t.tweet(t.parentId))),
+                path("TweetRepository.findByInReplyToIdAndDeletedFalse", "tweet_in_reply_to_idx",
+                        t -> t.tweetRepository.findByInReplyToIdAndDeletedFalse(t.parentId)),
+                path("TweetRepository.findAncestorIds", "tweet_pkey", t -> t.tweetRepository.findAncestorIds(t.replyId)),
+                path("TweetRepository.findReplyLinks", "tweet_in_reply_to_idx", t -> t.tweetRepository.findReplyLinks(t.parentId)),
+                path("TweetRepository.findEmbeddedVersionsById", "tweet_pkey", t -> t.tweetRepository.findEmbeddedVersionsById(t.tweetId)),
+
+                path("UserRepository.findByCredentials_Username", "user_table_username_key",
+                        t -> t.userRepository.findByCredentials_Username(USERNAME)),
+                path("UserRepository.findByCredentials_UsernameIn", "user_table_username_key",
+                        t -> t.userRepository.findByCredentials_UsernameIn(Set.of(USERNAME, "user1"))),
+                path("UserRepository.findByLikedTweets", "user_likes_tweet_idx", t -> t.userRepository.findByLikedTweets(t.tweet(t.likedId))),
+                path("UserRepository.findByIdInAndDeletedFalse", "user_table_pkey",
+                        t -> t.userRepository.findByIdInAndDeletedFalse(Set.of(USER_ID, USER_ID + 1))),
+                path("UserRepository.findVersionByUsername", "user_table_username_key", t -> t.userRepository.findVersionByUsername(USERNAME)),
+
+                path("HashtagRepository.findByLabel", "hashtag_label_key", t -> t.hashtagRepository.findByLabel(t.label)),
+                path("HashtagRepository.findByLabelIn", "hashtag_label_key", t -> t.hashtagRepository.findByLabelIn(Set.of(t.label))),
+                path("MentionRepository.findInbox", "user_mentions_user_posted_idx",
+                        t -> t.mentionRepository.findInbox(USER_ID, Limit.of(21))),
+                path("MentionRepository.findInboxBefore", "user_mentions_user_posted_idx",
+                        t -> t.mentionRepository.findInboxBefore(USER_ID, t.mention.getPosted(), t.mention.getTweetId(), Limit.of(21))),
+                path("MentionInboxRepository.findUnreadCountByUsername", "user_table_username_key",
+                        t -> t.mentionInboxRepository.findUnreadCountByUsername(USERNAME)),
+
+                path("User.tweets", "tweet_author_posted_idx", t -> t.user().getTweets().size()),
+                path("User.followers", "followers_following_following_idx", t -> t.user().getFollowers().size()),
+                path("User.following", "followers_following_followers_idx", t -> t.user().getFollowing().size()),
+                path("User.likedTweets", "user_likes_user_idx", t -> t.user().getLikedTweets().size()),
+                path("User.mentionedTweets", "user_mentions_user_posted_idx", t -> t.user().getMentionedTweets().size()),
+                path("Tweet.replies", "tweet_in_reply_to_idx", t -> t.tweet(t.parentId).getReplies().size()),
+                path("Tweet.reposts", "tweet_repost_of_idx", t -> t.tweet(t.repostedId).getReposts().size()),
+                path("Tweet.hashtags", "tweet_hashtags_tweet_idx", t -> t.tweet(t.tweetId).getHashtags().size()),
+                path("Tweet.mentionedUsers", "user_mentions_tweet_idx", t -> t.tweet(t.tweetId).getMentionedUsers().size()),
+                path("Tweet.likedByUsers", "user_likes_tweet_idx", t -> t.tweet(t.likedId).getLikedByUsers().size()),
+                path("Hashtag.tweets", "tweet_hashtags_hashtag_idx", t -> t.hashtag().getTweets().size())
+        );
+    }
+
+    /**
+     * Explains the last statement the access path ran; the entity it starts from is loaded before that. For a
+     * whole-table listing a sequential scan is the right plan, so sequential scans are switched off there to show
+     * the index can serve the filter and order instead.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("accessPaths")
+    void accessPathUsesItsIndex(AccessPath path) throws SQLException {
+        List<CapturedQuery> queries = transactionTemplate.execute(status -> {
+            capturedQueries.reset();
+            path.query().accept(this);
+            return capturedQueries.queries();
+        });
+        assertFalse(queries.isEmpty(), path.name() + " ran no SQL");
+        CapturedQuery query = queries.get(queries.size() - 1);
+
+        String plan = explain(query, path.wholeTable());
+        List<String> indexes = indexAndItsPartitions(path.index());
+        assertTrue(indexes.stream().anyMatch(plan::contains),
+                () -> path.name() + " doesn't use " + path.index() + ":\n" + query.sql() + "\n" + plan);
+    }
+
+    // On a partitioned table the plan names each partition's copy of an index rather than the index itself
+    private List<String> indexAndItsPartitions(String index) {
+        return new JdbcTemplate(primaryDataSource).queryForList("""
+                WITH RECURSIVE tree(oid) AS (
+                    SELECT ?::regclass::oid
+                    UNION ALL
+                    SELECT i.inhrelid FROM pg_inherits i JOIN tree t ON i.inhparent = t.oid
+                )
+                SELECT c.relname FROM tree JOIN pg_class c ON c.oid = tree.oid""", String.class, index);
+    }
+
+    private String explain(CapturedQuery query, boolean withoutSeqScan) throws SQLException {
+        try (Connection connection = primaryDataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = " + !withoutSeqScan);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query.sql())) {
+                for (ParameterSetOperation parameter : query.parameters()) {
+                    Object[] args = parameter.getArgs();
+                    if ("setNull".equals(parameter.getMethod().getName())) {
+                        explain.setNull((Integer) args[0], (Integer) args[1]);
+                    } else {
+                        explain.setObject((Integer) args[0], args[1]);
+                    }
+                }
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private User user() {
+        return entityManager.find(User.class, USER_ID);
+    }
+
+    private Tweet tweet(long id) {
+        return entityManager.find(Tweet.class, id);
+    }
+
+    private Hashtag hashtag() {
+        return hashtagRepository.findByLabel(label).orElseThrow();
+    }
+
+    private static AccessPath path(String name, String index, Consumer<IndexUsageTest> query) {
+        return new AccessPath(name, index, false, query);
+    }
+
+    private static AccessPath wholeTable(String name, String index, Consumer<IndexUsageTest> query) {
+        return new AccessPath(name, index, true, query);
+    }
+}